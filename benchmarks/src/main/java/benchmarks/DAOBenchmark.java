@@ -0,0 +1,116 @@
+package benchmarks;
+
+import chess.ChessGame;
+import dataaccess.DataAccessException;
+import dataaccess.sql.DatabaseManager;
+import dataaccess.sql.SQLAuthDAO;
+import dataaccess.sql.SQLGameDAO;
+import dataaccess.sql.SQLUserDAO;
+import model.AuthData;
+import model.GameData;
+import model.UserData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query latency of the SQL DAOs against MySQL, with the driver's prepared statement
+ * cache on and off. The queries are the ones the DAO tests exercise.
+ * <p>
+ * Needs the database from db.properties to be reachable. It runs in its own schema,
+ * {@code chess_benchmark} unless {@code -Ddb.name} says otherwise, and empties it before
+ * and after each run. Each statementCache value runs in a fresh fork, since the driver
+ * settings are read once when DatabaseManager loads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DAOBenchmark {
+
+    @Param({"true", "false"})
+    public String statementCache;
+
+    private SQLUserDAO userDAO;
+    private SQLAuthDAO authDAO;
+    private SQLGameDAO gameDAO;
+
+    private String authToken;
+    private int gameID;
+    private GameData game;
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        // Must happen before DatabaseManager is first touched
+        System.setProperty("db.name", System.getProperty("db.name", "chess_benchmark"));
+        System.setProperty("db.driver.useServerPrepStmts", statementCache);
+        System.setProperty("db.driver.cachePrepStmts", statementCache);
+
+        DatabaseManager.createDatabase();
+        DatabaseManager.configureDatabase();
+
+        userDAO = new SQLUserDAO();
+        authDAO = new SQLAuthDAO();
+        gameDAO = new SQLGameDAO();
+        clear();
+
+        userDAO.addUser(new UserData("benchmark", "password", "benchmark@example.com"));
+        authToken = UUID.randomUUID().toString();
+        authDAO.addAuth(new AuthData(authToken, "benchmark"));
+        gameID = gameDAO.createGame(new GameData(0, "benchmark", null, "benchmark", new ChessGame()));
+        game = gameDAO.getGame(gameID);
+    }
+
+    @TearDown
+    public void tearDown() throws DataAccessException {
+        clear();
+        DatabaseManager.closePool();
+    }
+
+    private void clear() throws DataAccessException {
+        authDAO.clear();
+        gameDAO.clear();
+        userDAO.clear();
+    }
+
+    @Benchmark
+    public UserData getUser() throws DataAccessException {
+        return userDAO.getUser("benchmark");
+    }
+
+    @Benchmark
+    public AuthData getAuth() throws DataAccessException {
+        return authDAO.getAuth(authToken);
+    }
+
+    @Benchmark
+    public void addAndDeleteAuth() throws DataAccessException {
+        String token = UUID.randomUUID().toString();
+        authDAO.addAuth(new AuthData(token, "benchmark"));
+        authDAO.deleteAuth(token);
+    }
+
+    @Benchmark
+    public GameData getGame() throws DataAccessException {
+        return gameDAO.getGame(gameID);
+    }
+
+    @Benchmark
+    public void updateGame() throws DataAccessException {
+        gameDAO.updateGame(gameID, game);
+    }
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import chess.ChessGame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing FEN over the position corpus, with full six-field FEN as stored
+ * and sent over the wire. Each operation is one pass over every position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FenBenchmark {
+
+    private List<ChessGame> games;
+    private String[] fens;
+
+    @Setup
+    public void setUp() {
+        games = Positions.all();
+        fens = new String[games.size()];
+        for (int i = 0; i < fens.length; i++) {
+            fens[i] = games.get(i).toFen();
+        }
+    }
+
+    @Benchmark
+    public void fromFen(Blackhole blackhole) {
+        for (String fen : fens) {
+            blackhole.consume(ChessGame.fromFen(fen));
+        }
+    }
+
+    @Benchmark
+    public void toFen(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.toFen());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.InvalidMoveException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Check, end-of-game detection and move making over the position corpus. Each operation
+ * is one pass over every position, always asking about the side to move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStateBenchmark {
+
+    private List<ChessGame> games;
+    private final List<ChessMove[]> legalMoves = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        games = Positions.all();
+        for (ChessGame game : games) {
+            legalMoves.add(game.allLegalMoves(game.getTeamTurn()).toArray(new ChessMove[0]));
+        }
+    }
+
+    @Benchmark
+    public void isInCheck(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheck(game.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void isInCheckmate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInCheckmate(game.getTeamTurn()));
+        }
+    }
+
+    @Benchmark
+    public void isInStalemate(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(game.isInStalemate(game.getTeamTurn()));
+        }
+    }
+
+    /**
+     * Copying a game, the baseline included in {@link #makeMove(Blackhole)}
+     */
+    @Benchmark
+    public void copyGame(Blackhole blackhole) {
+        for (int i = 0; i < games.size(); i++) {
+            for (int j = 0; j < legalMoves.get(i).length; j++) {
+                blackhole.consume(new ChessGame(games.get(i)));
+            }
+        }
+    }
+
+    /**
+     * Plays every legal move of every position, each on its own copy of the game so the
+     * corpus stays unchanged
+     */
+    @Benchmark
+    public void makeMove(Blackhole blackhole) throws InvalidMoveException {
+        for (int i = 0; i < games.size(); i++) {
+            for (ChessMove move : legalMoves.get(i)) {
+                ChessGame game = new ChessGame(games.get(i));
+                game.makeMove(move);
+                blackhole.consume(game);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessGameCodec;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The stored game state formats: the binary codec against the reflective JSON that
+ * games used to be stored as. Each operation is one pass over every position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameStorageBenchmark {
+
+    private final Gson gson = new Gson();
+
+    private List<ChessGame> games;
+    private String[] json;
+    private byte[][] binary;
+
+    @Setup
+    public void setUp() {
+        games = Positions.all();
+        json = new String[games.size()];
+        binary = new byte[games.size()][];
+        for (int i = 0; i < games.size(); i++) {
+            json[i] = gson.toJson(games.get(i));
+            binary[i] = ChessGameCodec.encode(games.get(i));
+        }
+    }
+
+    @Benchmark
+    public void encodeBinary(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(ChessGameCodec.encode(game));
+        }
+    }
+
+    @Benchmark
+    public void decodeBinary(Blackhole blackhole) {
+        for (byte[] data : binary) {
+            blackhole.consume(ChessGameCodec.decode(data));
+        }
+    }
+
+    @Benchmark
+    public void encodeJson(Blackhole blackhole) {
+        for (ChessGame game : games) {
+            blackhole.consume(gson.toJson(game));
+        }
+    }
+
+    @Benchmark
+    public void decodeJson(Blackhole blackhole) {
+        for (String data : json) {
+            blackhole.consume(gson.fromJson(data, ChessGame.class));
+        }
+    }
+}
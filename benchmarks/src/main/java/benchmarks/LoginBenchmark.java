@@ -0,0 +1,68 @@
+package benchmarks;
+
+import dataaccess.DataAccessException;
+import dataaccess.memory.MemoryAuthDAO;
+import dataaccess.memory.MemoryUserDAO;
+import dto.session.LoginRequest;
+import dto.session.LoginResult;
+import http.service.PasswordHasher;
+import http.service.SessionService;
+import model.UserData;
+import org.mindrot.jbcrypt.BCrypt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throughput at each BCrypt cost, going through SessionService and the password
+ * hashing pool as the server does. Each step in cost doubles the work, so this shows what
+ * auth.bcrypt.cost costs in logins per second per hashing thread. The DAOs are the
+ * in-memory ones, so the time is almost all BCrypt.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    public int cost;
+
+    private PasswordHasher hasher;
+    private SessionService service;
+    private LoginRequest request;
+
+    @Setup
+    public void setUp() throws DataAccessException {
+        MemoryUserDAO userDAO = new MemoryUserDAO();
+        userDAO.addUser(new UserData("benchmark", BCrypt.hashpw("password", BCrypt.gensalt(cost)),
+                "benchmark@example.com"));
+
+        hasher = new PasswordHasher(cost, 1, 1);
+        service = new SessionService(userDAO, new MemoryAuthDAO(), hasher);
+        request = new LoginRequest("benchmark", "password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.close();
+    }
+
+    @Benchmark
+    public LoginResult login() {
+        return service.login(request);
+    }
+}
@@ -0,0 +1,88 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pseudo-legal and legal move generation over the position corpus. Each operation is one
+ * pass over every matching piece in every position.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+
+    @Param({"KING", "QUEEN", "BISHOP", "KNIGHT", "ROOK", "PAWN"})
+    public ChessPiece.PieceType pieceType;
+
+    private final List<ChessBoard> pieceBoards = new ArrayList<>();
+    private final List<ChessPosition> piecePositions = new ArrayList<>();
+
+    private final List<ChessGame> moverGames = new ArrayList<>();
+    private final List<ChessPosition> moverPositions = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (ChessGame game : Positions.all()) {
+            ChessBoard board = game.getBoard();
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    ChessPosition position = new ChessPosition(row, col);
+                    ChessPiece piece = board.getPiece(position);
+                    if (piece == null || piece.getPieceType() != pieceType) {
+                        continue;
+                    }
+                    pieceBoards.add(board);
+                    piecePositions.add(position);
+                    if (piece.getTeamColor() == game.getTeamTurn()) {
+                        moverGames.add(game);
+                        moverPositions.add(position);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves each piece of this type could make, ignoring whether they leave its king in check
+     */
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (int i = 0; i < pieceBoards.size(); i++) {
+            ChessBoard board = pieceBoards.get(i);
+            ChessPosition position = piecePositions.get(i);
+            blackhole.consume(board.getPiece(position).pieceMoves(board, position));
+        }
+    }
+
+    /**
+     * Legal moves of each piece of this type belonging to the side to move
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (int i = 0; i < moverGames.size(); i++) {
+            blackhole.consume(moverGames.get(i).validMoves(moverPositions.get(i)));
+        }
+    }
+}
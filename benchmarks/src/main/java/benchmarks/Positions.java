@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The positions every benchmark runs over: a mix of opening, middlegame and endgame
+ * positions so that no single piece layout dominates the numbers.
+ * <p>
+ * Positions are written in FEN, leaving out the castling, en passant and move counter
+ * fields since this game has no castling or en passant.
+ */
+public final class Positions {
+
+    public static final String[] MIDDLEGAMES = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w",
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w",
+            "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w",
+            "2r3k1/pp2qppp/2n1b3/3pP3/3P4/P1N2N2/1P3PPP/2RQ2K1 b",
+            "r2q1rk1/pb1nbppp/1p2pn2/2pp4/2PP4/1PN1PN2/PB2BPPP/R2Q1RK1 b",
+            "2kr3r/ppp2ppp/2n1bn2/2b1p3/4P3/2NP1N2/PPP1BPPP/R1B2RK1 w",
+    };
+
+    public static final String[] ENDGAMES = {
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w",
+            "8/5pk1/6p1/8/3R4/6PP/5PK1/3r4 w",
+            "6k1/5ppp/8/8/8/8/5PPP/3Q2K1 b",
+            "8/8/1k6/2b5/2pP4/8/5K2/8 b",
+            "4k3/8/8/8/8/8/4P3/4K3 w",
+            "8/8/8/3k4/8/8/2QK4/8 b",
+            "3r2k1/5ppp/8/8/1n6/8/5PPP/2R1B1K1 w",
+            "8/p4pk1/1p4p1/8/8/1P4P1/P4PK1/8 w",
+    };
+
+    private Positions() {}
+
+    /**
+     * @return a fresh game for each position in the corpus, middlegames first
+     */
+    public static List<ChessGame> all() {
+        List<ChessGame> games = new ArrayList<>();
+        for (String position : MIDDLEGAMES) {
+            games.add(ChessGame.fromFen(position));
+        }
+        for (String position : ENDGAMES) {
+            games.add(ChessGame.fromFen(position));
+        }
+        return games;
+    }
+}
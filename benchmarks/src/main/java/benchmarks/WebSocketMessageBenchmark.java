@@ -0,0 +1,69 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import serialization.Serializer;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.LoadGameMessage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JSON work done per websocket frame: decoding a MAKE_MOVE command and encoding the
+ * LOAD_GAME broadcast, with the shared streaming Gson against a reflective one. The
+ * reflective command decode parses twice, as the handler used to, to find the type first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WebSocketMessageBenchmark {
+
+    private final Gson reflective = new Gson();
+
+    private String commandJson;
+    private LoadGameMessage loadGame;
+
+    @Setup
+    public void setUp() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        commandJson = reflective.toJson(new MakeMoveCommand("5f1c0d9e-6c1a-4b8e-9a57-1d2c3b4a5e6f", 42, move));
+        loadGame = new LoadGameMessage(ChessGame.fromFen(Positions.MIDDLEGAMES[3]));
+    }
+
+    @Benchmark
+    public UserGameCommand decodeCommandStreaming() {
+        return Serializer.GSON.fromJson(commandJson, UserGameCommand.class);
+    }
+
+    @Benchmark
+    public UserGameCommand decodeCommandReflective() {
+        reflective.fromJson(commandJson, UserGameCommand.class);
+        return reflective.fromJson(commandJson, MakeMoveCommand.class);
+    }
+
+    @Benchmark
+    public String encodeLoadGameStreaming() {
+        return Serializer.GSON.toJson(loadGame);
+    }
+
+    @Benchmark
+    public String encodeLoadGameReflective() {
+        return reflective.toJson(loadGame);
+    }
+}
@@ -6,6 +6,7 @@ import java.net.URI;
 import com.google.gson.Gson;
 import jakarta.websocket.*;
 
+import serialization.Serializer;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
@@ -21,7 +22,7 @@ public class GameWebSocketFacade {
         void onError(ErrorMessage message);
     }
 
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
     private final NotificationHandler handler;
     private Session session;
 
@@ -55,21 +56,13 @@ public class GameWebSocketFacade {
 
     @OnMessage
     public void onMessage(String json) {
-        ServerMessage base = gson.fromJson(json, ServerMessage.class);
-
-        switch (base.getServerMessageType()) {
-            case LOAD_GAME -> {
-                LoadGameMessage msg = gson.fromJson(json, LoadGameMessage.class);
-                handler.onLoadGame(msg);
-            }
-            case NOTIFICATION -> {
-                NotificationMessage msg = gson.fromJson(json, NotificationMessage.class);
-                handler.onNotification(msg);
-            }
-            case ERROR -> {
-                ErrorMessage msg = gson.fromJson(json, ErrorMessage.class);
-                handler.onError(msg);
-            }
+        // The shared adapter builds the concrete message type in one pass
+        ServerMessage message = gson.fromJson(json, ServerMessage.class);
+
+        switch (message.getServerMessageType()) {
+            case LOAD_GAME -> handler.onLoadGame((LoadGameMessage) message);
+            case NOTIFICATION -> handler.onNotification((NotificationMessage) message);
+            case ERROR -> handler.onError((ErrorMessage) message);
         }
     }
 
@@ -2,9 +2,12 @@ package facades;
 
 import java.io.IOException;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
 
 import com.google.gson.Gson;
 import dto.game.*;
@@ -12,12 +15,13 @@ import dto.session.LoginRequest;
 import dto.session.LoginResult;
 import dto.user.RegisterRequest;
 import dto.user.RegisterResult;
+import serialization.Serializer;
 
 public class ServerFacade {
 
     private final String serverUrl;
     private final HttpClient client;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
 
     public ServerFacade(String serverUrl) {
         this.serverUrl = serverUrl;
@@ -58,9 +62,12 @@ public class ServerFacade {
         sendRequest(httpRequest, null);
     }
 
+    /**
+     * Lists every game, or one page of them if the request sets any paging or filter field
+     */
     public ListGamesResult listGames(ListGamesRequest request) throws Exception {
         HttpRequest httpRequest = HttpRequest.newBuilder()
-                .uri(URI.create(serverUrl + "/game"))
+                .uri(URI.create(serverUrl + "/game" + listQuery(request)))
                 .GET()
                 .header("authorization", request.authToken())
                 .build();
@@ -68,6 +75,29 @@ public class ServerFacade {
         return sendRequest(httpRequest, ListGamesResult.class);
     }
 
+    private static String listQuery(ListGamesRequest request) {
+        StringJoiner query = new StringJoiner("&", "?", "").setEmptyValue("");
+        if (request.after() != null) {
+            query.add("after=" + request.after());
+        }
+        if (request.limit() != null) {
+            query.add("limit=" + request.limit());
+        }
+        if (request.openSeats()) {
+            query.add("open=true");
+        }
+        if (request.mine()) {
+            query.add("mine=true");
+        }
+        if (request.status() != null) {
+            query.add("status=" + request.status().name().toLowerCase());
+        }
+        if (request.namePrefix() != null) {
+            query.add("name=" + URLEncoder.encode(request.namePrefix(), StandardCharsets.UTF_8));
+        }
+        return query.toString();
+    }
+
     public CreateGameResult createGame(CreateGameRequest request) throws Exception {
         String body = gson.toJson(
                 new CreateGameRequest(null, request.gameName())
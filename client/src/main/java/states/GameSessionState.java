@@ -209,7 +209,7 @@ public class GameSessionState {
         int column = file - 'a' + 1;
         int row = rank - '0';
 
-        return new ChessPosition(row, column);
+        return ChessPosition.of(row, column);
     }
 
     private ChessPiece.PieceType parsePromotion(String input) {
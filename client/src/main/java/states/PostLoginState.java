@@ -20,6 +20,7 @@ import static client.ClientState.*;
 
 public class PostLoginState {
 
+    private static final int PAGE_SIZE = 20;
 
     private final ServerFacade server;
     private final Scanner scanner;
@@ -29,6 +30,9 @@ public class PostLoginState {
 
     private boolean firstRun = true;
     private List<GameInfo> gamesList = new ArrayList<>();
+    // The cursor the listed page started from (null for the first page) and the one after it
+    private Integer pageStart;
+    private Integer nextCursor;
 
 public PostLoginState(ServerFacade server, Scanner scanner, GameSessionState gameSessionState) {
     this.server = server;
@@ -51,6 +55,7 @@ public PostLoginState(ServerFacade server, Scanner scanner, GameSessionState gam
                 case "logout" -> logout(context);
                 case "create game" -> createGame(context);
                 case "list games" -> listGames(context);
+                case "next games" -> nextGames(context);
                 case "play game" -> joinGame(context, false);
                 case "observe game" -> joinGame(context, true);
                 default -> {
@@ -73,6 +78,7 @@ public PostLoginState(ServerFacade server, Scanner scanner, GameSessionState gam
                         * logout (log user out)
                         * create game (creates new game)
                         * list games (lists created games, their game numbers, and current players)
+                        * next games (lists the next page of games)
                         * play game (play created games with game number (can be found with list games)
                         * observe game (watch an ongoing game)
                         """
@@ -84,6 +90,8 @@ public PostLoginState(ServerFacade server, Scanner scanner, GameSessionState gam
     private ClientState logout(ClientContext context) throws Exception {
         server.logout(context.getAuthToken());
         firstRun = true;
+        pageStart = null;
+        nextCursor = null;
 
         return PRE_LOGIN;
     }
@@ -101,8 +109,21 @@ public PostLoginState(ServerFacade server, Scanner scanner, GameSessionState gam
     }
 
     private ClientState listGames(ClientContext context) throws Exception {
-        ListGamesResult result = server.listGames(new ListGamesRequest(context.getAuthToken()));
-        gamesList = result.games();
+        pageStart = null;
+        return showPage(context);
+    }
+
+    private ClientState nextGames(ClientContext context) throws Exception {
+        if (nextCursor == null) {
+            System.out.println(ui.warning("No more games. Use list games to start over"));
+            return POST_LOGIN;
+        }
+        pageStart = nextCursor;
+        return showPage(context);
+    }
+
+    private ClientState showPage(ClientContext context) throws Exception {
+        fetchPage(context);
 
         if (gamesList.isEmpty()) {
             System.out.println(ui.warning(
@@ -117,13 +138,26 @@ public PostLoginState(ServerFacade server, Scanner scanner, GameSessionState gam
                         game.blackUsername()
                 );
             }
+            if (nextCursor != null) {
+                System.out.println(ui.info("More games: type next games"));
+            }
         }
         return POST_LOGIN;
     }
 
+    /**
+     * Loads the page of games starting at pageStart, so game numbers refer to it
+     */
+    private void fetchPage(ClientContext context) throws Exception {
+        ListGamesResult result = server.listGames(new ListGamesRequest(
+                context.getAuthToken(), pageStart, PAGE_SIZE, false, false, null, null));
+        gamesList = result.games();
+        nextCursor = result.nextCursor();
+    }
+
     private ClientState joinGame(ClientContext context, boolean isObserving) throws Exception {
-        ListGamesResult listResult = server.listGames(new ListGamesRequest(context.getAuthToken()));
-        gamesList = listResult.games();
+        // Refresh the listed page so the seats shown are current
+        fetchPage(context);
 
         if (gamesList.isEmpty()) {
             System.out.println(ui.warning("No games have been created yet. Use create game first"));
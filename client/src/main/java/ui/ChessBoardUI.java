@@ -67,7 +67,7 @@ public class ChessBoardUI {
                         ? c + 1
                         : BOARD_SIZE - c;
 
-                ChessPosition pos = new ChessPosition(row, col);
+                ChessPosition pos = ChessPosition.of(row, col);
 
                 boolean light = (row + col) % 2 != 0;
                 boolean highlight = highlightSquares.contains(pos);
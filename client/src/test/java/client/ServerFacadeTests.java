@@ -224,6 +224,28 @@ public class ServerFacadeTests {
         assertFalse(result.games().isEmpty());
     }
 
+    @Test
+    void listGamesPagedPositive() throws Exception {
+
+        for (int i = 0; i < 3; i++) {
+            facade.createGame(new CreateGameRequest(authToken, "paged" + i));
+        }
+
+        ListGamesResult first =
+                facade.listGames(
+                        new ListGamesRequest(authToken, null, 2, false, false, null, "paged")
+                );
+        ListGamesResult second =
+                facade.listGames(
+                        new ListGamesRequest(authToken, first.nextCursor(), 2, false, false, null, "paged")
+                );
+
+        assertEquals(2, first.games().size());
+        assertNotNull(first.nextCursor());
+        assertEquals(1, second.games().size());
+        assertNull(second.nextCursor());
+    }
+
     @Test
     void listGamesNegativeInvalidToken() {
 
@@ -1,5 +1,7 @@
 package dataaccess;
 
+import java.util.UUID;
+
 import model.AuthData;
 
 public interface AuthDAO {
@@ -7,5 +9,15 @@ public interface AuthDAO {
     public void addAuth(AuthData authData) throws DataAccessException;
     public void deleteAuth(String authToken) throws DataAccessException;
 
+    /**
+     * Issues a new token for the user. Stores that keep tokens make up a random one and add
+     * it; a store that signs its tokens mints one instead.
+     */
+    default AuthData createAuth(String username) throws DataAccessException {
+        AuthData auth = new AuthData(UUID.randomUUID().toString(), username);
+        addAuth(auth);
+        return auth;
+    }
+
     void clear() throws DataAccessException;
-}
\ No newline at end of file
+}
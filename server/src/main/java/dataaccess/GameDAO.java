@@ -1,14 +1,71 @@
 package dataaccess;
 
+import java.util.Comparator;
 import java.util.List;
 
+import chess.ChessGame;
+import chess.ChessMove;
 import model.GameData;
+import model.GameQuery;
+import model.GameSummary;
 
 public interface GameDAO {
     public List<GameData> listGames() throws DataAccessException;
+
+    /**
+     * Lists every game without its state, for the lobby. Stores that can skip reading the
+     * state should.
+     */
+    default List<GameSummary> listGameSummaries() throws DataAccessException {
+        return listGames().stream()
+                .map(g -> new GameSummary(g.gameID(), g.whiteUsername(), g.blackUsername(), g.gameName()))
+                .toList();
+    }
+
+    /**
+     * Lists one page of the games that match the query, in gameID order
+     */
+    default List<GameSummary> listGameSummaries(GameQuery query) throws DataAccessException {
+        return listGames().stream()
+                .filter(query::matches)
+                .sorted(Comparator.comparingInt(GameData::gameID))
+                .limit(query.limit())
+                .map(g -> new GameSummary(g.gameID(), g.whiteUsername(), g.blackUsername(), g.gameName()))
+                .toList();
+    }
+
     public GameData getGame(int gameID) throws DataAccessException;
     public int createGame(GameData gameData) throws DataAccessException;
     public void updateGame(int gameID, GameData updatedGame) throws DataAccessException;
 
+    /**
+     * Seats a player if the seat is free. Only the seat changes; the game's state stays as
+     * the store has it, so a join can't roll back moves recorded since the caller last read
+     * the game.
+     *
+     * @return false if the seat is already taken
+     * @throws DataAccessException if there is no such game
+     */
+    default boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        GameData game = getGame(gameID);
+        if (game == null) {
+            throw new DataAccessException("No game with ID " + gameID);
+        }
+        if (game.username(color) != null) {
+            return false;
+        }
+        updateGame(gameID, game.withPlayer(color, username));
+        return true;
+    }
+
+    /**
+     * Records moves played in a game, oldest first, where updatedGame is the game after
+     * the last of them. Stores that keep a move log append to it; the rest just store the
+     * updated game.
+     */
+    default void recordMoves(int gameID, List<ChessMove> moves, GameData updatedGame) throws DataAccessException {
+        updateGame(gameID, updatedGame);
+    }
+
     void clear() throws DataAccessException;
 }
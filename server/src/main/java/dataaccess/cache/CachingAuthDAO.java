@@ -0,0 +1,193 @@
+package dataaccess.cache;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import dataaccess.AuthDAO;
+import dataaccess.DataAccessException;
+import model.AuthData;
+
+/**
+ * AuthDAO decorator that remembers token lookups, so validating a token is a map lookup
+ * rather than a query.
+ * <p>
+ * Valid tokens are kept for the TTL and unknown ones for the shorter negative TTL, which
+ * stops a client retrying a bad token from reaching the database on every request. Tokens
+ * added or deleted through this DAO take effect immediately. A lookup that was already
+ * reading from the delegate when a token changed does not store its result, since it may
+ * predate the change.
+ * <p>
+ * Valid and unknown tokens are kept in separate least-recently-used maps, with unknown
+ * tokens limited to a quarter of the entries. Making room is then a constant-time removal
+ * of the eldest entry, and a burst of bad tokens only pushes out other bad tokens, never
+ * the valid ones in use.
+ */
+public class CachingAuthDAO implements AuthDAO {
+
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    // auth is null for a token the delegate did not know
+    private record Entry(AuthData auth, long expiresAt) {}
+
+    /**
+     * Access-ordered map that drops its least recently used entry past a size limit
+     */
+    private final class LruMap extends LinkedHashMap<String, Entry> {
+        private final int limit;
+
+        LruMap(int limit) {
+            super(16, 0.75f, true);
+            this.limit = limit;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() > limit) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private final AuthDAO delegate;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+
+    // Guarded by this
+    private final LruMap tokens;
+    private final LruMap unknownTokens;
+    // Bumped on every change, so a lookup can tell whether one happened while it was loading
+    private long version;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingAuthDAO(AuthDAO delegate) {
+        this(delegate, DEFAULT_TTL, DEFAULT_NEGATIVE_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param ttl how long a valid token is trusted without asking the delegate
+     * @param negativeTtl how long an unknown token is rejected without asking the delegate
+     * @param maxEntries how many tokens to remember
+     */
+    public CachingAuthDAO(AuthDAO delegate, Duration ttl, Duration negativeTtl, int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        int unknownLimit = maxEntries / 4;
+        this.tokens = new LruMap(maxEntries - unknownLimit);
+        this.unknownTokens = new LruMap(unknownLimit);
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        long loadedAt;
+        synchronized (this) {
+            Entry entry = tokens.get(authToken);
+            if (entry == null) {
+                entry = unknownTokens.get(authToken);
+            }
+            if (entry != null && entry.expiresAt - System.nanoTime() > 0) {
+                if (entry.auth == null) {
+                    negativeHits.increment();
+                } else {
+                    hits.increment();
+                }
+                return entry.auth;
+            }
+            loadedAt = version;
+        }
+
+        misses.increment();
+        AuthData auth = delegate.getAuth(authToken);
+
+        synchronized (this) {
+            if (version == loadedAt) {
+                store(authToken, auth);
+            }
+        }
+        return auth;
+    }
+
+    @Override
+    public void addAuth(AuthData authData) throws DataAccessException {
+        delegate.addAuth(authData);
+        synchronized (this) {
+            version++;
+            store(authData.authToken(), authData);
+        }
+    }
+
+    @Override
+    public AuthData createAuth(String username) throws DataAccessException {
+        AuthData authData = delegate.createAuth(username);
+        synchronized (this) {
+            version++;
+            store(authData.authToken(), authData);
+        }
+        return authData;
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        delegate.deleteAuth(authToken);
+        synchronized (this) {
+            version++;
+            tokens.remove(authToken);
+            unknownTokens.remove(authToken);
+        }
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        delegate.clear();
+        synchronized (this) {
+            version++;
+            tokens.clear();
+            unknownTokens.clear();
+        }
+    }
+
+    // Guarded by this
+    private void store(String authToken, AuthData auth) {
+        long now = System.nanoTime();
+        if (auth == null) {
+            tokens.remove(authToken);
+            unknownTokens.put(authToken, new Entry(null, now + negativeTtlNanos));
+        } else {
+            unknownTokens.remove(authToken);
+            tokens.put(authToken, new Entry(auth, now + ttlNanos));
+        }
+    }
+
+    public synchronized int size() {
+        return tokens.size() + unknownTokens.size();
+    }
+
+    /**
+     * @return counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum() + negativeHits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("hits", hits.sum());
+        stats.put("negativeHits", negativeHits.sum());
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+}
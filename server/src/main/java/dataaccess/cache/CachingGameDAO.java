@@ -0,0 +1,496 @@
+package dataaccess.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import dataaccess.DataAccessException;
+import dataaccess.GameDAO;
+import model.GameData;
+import model.GameQuery;
+import model.GameSummary;
+
+/**
+ * GameDAO decorator that keeps games in play in memory and writes them back behind the
+ * caller.
+ * <p>
+ * The first read of a game loads it from the delegate; later reads and updates only touch
+ * memory. A background task writes each changed game back every flush interval, so any
+ * number of moves between two flushes cost one write: the moves go to the delegate as one
+ * recordMoves batch, followed by an updateGame only if something other than a move
+ * changed. A game that ends is written through before the call returns, and a changed
+ * game is always written before it is evicted, so the delegate never loses a finished game
+ * and never serves a stale one after eviction. Call {@link #close()} on shutdown to write
+ * whatever is still pending.
+ * <p>
+ * Games go in and out as copies: callers mutate the ChessGame they get back, and nothing
+ * they do reaches the cache until they pass it to updateGame or recordMoves.
+ */
+public class CachingGameDAO implements GameDAO, AutoCloseable {
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(500);
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+    public static final int DEFAULT_MAX_GAMES = 1000;
+
+    private static final class Entry {
+        private GameData game;
+        // Moves not yet written, oldest first, all leading up to game
+        private List<ChessMove> pendingMoves = new ArrayList<>();
+        // Whether something other than a move has changed since the last write
+        private boolean updated;
+        private long touchedAt;
+
+        // Held while this game is written to the delegate, so two writes of the same game
+        // never race and an older snapshot can't land after a newer one. A lock rather than
+        // a monitor, since it is held across the database round trip and a virtual thread
+        // blocked in a synchronized block would pin its carrier.
+        private final ReentrantLock writeLock = new ReentrantLock();
+
+        Entry(GameData game, long touchedAt) {
+            this.game = game;
+            this.touchedAt = touchedAt;
+        }
+
+        boolean dirty() {
+            return updated || !pendingMoves.isEmpty();
+        }
+    }
+
+    private final GameDAO delegate;
+    private final long idleTimeoutNanos;
+    private final int maxGames;
+
+    // Guarded by this
+    private final Map<Integer, Entry> games = new HashMap<>();
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-cache-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingGameDAO(GameDAO delegate) {
+        this(delegate, DEFAULT_FLUSH_INTERVAL, DEFAULT_IDLE_TIMEOUT, DEFAULT_MAX_GAMES);
+    }
+
+    /**
+     * @param flushInterval how often changed games are written back
+     * @param idleTimeout how long a game stays cached after its last read or update
+     * @param maxGames how many games to keep; past this the least recently used go first
+     */
+    public CachingGameDAO(GameDAO delegate, Duration flushInterval, Duration idleTimeout, int maxGames) {
+        if (maxGames < 1) {
+            throw new IllegalArgumentException("maxGames must be positive");
+        }
+        this.delegate = delegate;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.maxGames = maxGames;
+
+        long interval = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public List<GameData> listGames() throws DataAccessException {
+        List<GameData> stored = delegate.listGames();
+
+        // Cached games may be ahead of what has been written
+        Map<Integer, GameData> cached = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Integer, Entry> entry : games.entrySet()) {
+                cached.put(entry.getKey(), entry.getValue().game);
+            }
+        }
+
+        List<GameData> result = new ArrayList<>(stored.size());
+        for (GameData game : stored) {
+            GameData current = cached.get(game.gameID());
+            result.add(current == null ? game : copy(current));
+        }
+        return result;
+    }
+
+    @Override
+    public List<GameSummary> listGameSummaries() throws DataAccessException {
+        List<GameSummary> stored = delegate.listGameSummaries();
+
+        // Seat changes may not have been written yet
+        Map<Integer, GameData> cached = new HashMap<>();
+        synchronized (this) {
+            for (Map.Entry<Integer, Entry> entry : games.entrySet()) {
+                cached.put(entry.getKey(), entry.getValue().game);
+            }
+        }
+        if (cached.isEmpty()) {
+            return stored;
+        }
+
+        List<GameSummary> result = new ArrayList<>(stored.size());
+        for (GameSummary summary : stored) {
+            GameData current = cached.get(summary.gameID());
+            result.add(current == null ? summary : new GameSummary(
+                    current.gameID(), current.whiteUsername(), current.blackUsername(), current.gameName()));
+        }
+        return result;
+    }
+
+    /**
+     * Pages come from the delegate, with cached games swapped in and dropped if their
+     * unwritten changes mean they no longer match. Dropping games can leave a page short,
+     * so the delegate is asked for more past the last game it returned until the page is
+     * full or it runs out; a short page then still means there are no more games. A game
+     * that only matches because of an unwritten change shows up once it has been flushed.
+     */
+    @Override
+    public List<GameSummary> listGameSummaries(GameQuery query) throws DataAccessException {
+        List<GameSummary> result = new ArrayList<>(query.limit());
+        GameQuery next = query;
+        while (true) {
+            List<GameSummary> stored = delegate.listGameSummaries(next);
+            synchronized (this) {
+                for (GameSummary summary : stored) {
+                    Entry entry = games.get(summary.gameID());
+                    if (entry == null) {
+                        result.add(summary);
+                    } else if (query.matches(entry.game)) {
+                        GameData current = entry.game;
+                        result.add(new GameSummary(
+                                current.gameID(), current.whiteUsername(), current.blackUsername(), current.gameName()));
+                    }
+                }
+            }
+
+            int missing = query.limit() - result.size();
+            if (stored.size() < next.limit() || missing <= 0) {
+                return result;
+            }
+            next = new GameQuery(stored.get(stored.size() - 1).gameID(), missing, query.openSeats(),
+                    query.player(), query.gameOver(), query.namePrefix());
+        }
+    }
+
+    @Override
+    public GameData getGame(int gameID) throws DataAccessException {
+        synchronized (this) {
+            Entry entry = games.get(gameID);
+            if (entry != null) {
+                hits.increment();
+                entry.touchedAt = System.nanoTime();
+                return copy(entry.game);
+            }
+        }
+
+        misses.increment();
+        GameData loaded = delegate.getGame(gameID);
+        if (loaded == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            // Another caller may have loaded or updated it meanwhile; theirs is as new or newer
+            Entry entry = games.computeIfAbsent(gameID, id -> new Entry(copy(loaded), System.nanoTime()));
+            return copy(entry.game);
+        }
+    }
+
+    /**
+     * Games are only cached once read, so creation goes straight to the delegate, which
+     * hands out the ID
+     */
+    @Override
+    public int createGame(GameData gameData) throws DataAccessException {
+        return delegate.createGame(gameData);
+    }
+
+    /**
+     * Updates the cached game and queues it for the next flush, or writes it through
+     * straight away if the game is over
+     */
+    @Override
+    public void updateGame(int gameID, GameData updatedGame) throws DataAccessException {
+        Entry entry;
+        GameData snapshot = copy(updatedGame);
+        synchronized (this) {
+            entry = put(gameID, snapshot);
+            entry.updated = true;
+        }
+        updates.increment();
+
+        if (snapshot.game() != null && snapshot.game().isGameOver()) {
+            write(gameID, entry);
+        }
+    }
+
+    /**
+     * Seats the player in the cached game, leaving its state and pending moves alone, and
+     * queues the game for the next flush. A join comes in over HTTP rather than through the
+     * game's command queue, so the caller's copy of the game may be behind moves not yet
+     * written; replacing the cached game with it would let that older state reach the
+     * store along with the newer moves.
+     */
+    @Override
+    public boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        while (true) {
+            if (getGame(gameID) == null) {
+                throw new DataAccessException("No game with ID " + gameID);
+            }
+            synchronized (this) {
+                Entry entry = games.get(gameID);
+                if (entry == null) {
+                    // Evicted since the read; load it again
+                    continue;
+                }
+                if (entry.game.username(color) != null) {
+                    return false;
+                }
+                entry.game = entry.game.withPlayer(color, username);
+                entry.updated = true;
+                entry.touchedAt = System.nanoTime();
+            }
+            updates.increment();
+            return true;
+        }
+    }
+
+    /**
+     * Queues the moves for the next flush, or writes them through straight away if they
+     * end the game
+     */
+    @Override
+    public void recordMoves(int gameID, List<ChessMove> moves, GameData updatedGame) throws DataAccessException {
+        Entry entry;
+        GameData snapshot = copy(updatedGame);
+        synchronized (this) {
+            entry = put(gameID, snapshot);
+            entry.pendingMoves.addAll(moves);
+        }
+        updates.increment();
+
+        if (snapshot.game() != null && snapshot.game().isGameOver()) {
+            write(gameID, entry);
+        }
+    }
+
+    // Guarded by this
+    private Entry put(int gameID, GameData snapshot) {
+        Entry entry = games.get(gameID);
+        if (entry == null) {
+            entry = new Entry(snapshot, System.nanoTime());
+            games.put(gameID, entry);
+        } else {
+            entry.game = snapshot;
+            entry.touchedAt = System.nanoTime();
+        }
+        return entry;
+    }
+
+    @Override
+    public void clear() throws DataAccessException {
+        synchronized (this) {
+            games.clear();
+        }
+        delegate.clear();
+    }
+
+    /**
+     * Writes every changed game to the delegate now
+     *
+     * @throws DataAccessException from the first write that failed; the rest are still
+     * attempted, and failed games stay queued
+     */
+    public void flush() throws DataAccessException {
+        List<Map.Entry<Integer, Entry>> pending = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<Integer, Entry> entry : games.entrySet()) {
+                if (entry.getValue().dirty()) {
+                    pending.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+
+        DataAccessException failure = null;
+        for (Map.Entry<Integer, Entry> entry : pending) {
+            try {
+                write(entry.getKey(), entry.getValue());
+            } catch (DataAccessException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Writes the pending moves and latest snapshot of a game if it has changed since its
+     * last write
+     */
+    private void write(int gameID, Entry entry) throws DataAccessException {
+        entry.writeLock.lock();
+        try {
+            GameData snapshot;
+            List<ChessMove> moves;
+            boolean updated;
+            synchronized (this) {
+                if (!entry.dirty()) {
+                    return;
+                }
+                snapshot = entry.game;
+                moves = entry.pendingMoves;
+                updated = entry.updated;
+                entry.pendingMoves = new ArrayList<>();
+                entry.updated = false;
+            }
+
+            boolean movesWritten = false;
+            try {
+                if (!moves.isEmpty()) {
+                    delegate.recordMoves(gameID, moves, snapshot);
+                    movesWritten = true;
+                    writes.increment();
+                }
+                if (updated) {
+                    delegate.updateGame(gameID, snapshot);
+                    writes.increment();
+                }
+            } catch (DataAccessException | RuntimeException e) {
+                writeFailures.increment();
+                synchronized (this) {
+                    // Queue again in front of anything that arrived meanwhile
+                    if (!movesWritten) {
+                        entry.pendingMoves.addAll(0, moves);
+                    }
+                    entry.updated |= updated;
+                }
+                throw e;
+            }
+        } finally {
+            entry.writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs on the flusher thread: writes changed games, then drops games that have been
+     * idle too long and, past the size limit, the least recently used
+     */
+    private void maintain() {
+        try {
+            flush();
+        } catch (DataAccessException | RuntimeException e) {
+            // Failed games stay dirty and are retried on the next run
+        }
+
+        long now = System.nanoTime();
+        List<Map.Entry<Integer, Entry>> candidates = new ArrayList<>();
+        synchronized (this) {
+            List<Map.Entry<Integer, Entry>> byAge = new ArrayList<>(games.entrySet());
+            byAge.sort(Comparator.comparingLong(entry -> entry.getValue().touchedAt));
+            int excess = games.size() - maxGames;
+            for (Map.Entry<Integer, Entry> entry : byAge) {
+                boolean idle = now - entry.getValue().touchedAt >= idleTimeoutNanos;
+                if (!idle && excess <= 0) {
+                    break;
+                }
+                candidates.add(Map.entry(entry.getKey(), entry.getValue()));
+                excess--;
+            }
+        }
+
+        for (Map.Entry<Integer, Entry> candidate : candidates) {
+            evict(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    /**
+     * Writes the game if it changed, then drops it unless it was used again meanwhile
+     */
+    private void evict(int gameID, Entry entry) {
+        long touchedAt;
+        synchronized (this) {
+            touchedAt = entry.touchedAt;
+        }
+        try {
+            write(gameID, entry);
+        } catch (DataAccessException | RuntimeException e) {
+            // Keep it cached rather than lose the update; it is retried on the next run
+            return;
+        }
+
+        synchronized (this) {
+            if (!entry.dirty() && entry.touchedAt == touchedAt && games.get(gameID) == entry) {
+                games.remove(gameID);
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Stops the background flush and writes everything still pending
+     */
+    @Override
+    public void close() throws DataAccessException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    public synchronized int cachedGameCount() {
+        return games.size();
+    }
+
+    public synchronized int pendingWriteCount() {
+        int pending = 0;
+        for (Entry entry : games.values()) {
+            if (entry.dirty()) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * @return counters for the metrics endpoint; updates minus writes is how many writes
+     * were saved by coalescing
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedGames", cachedGameCount());
+        stats.put("pendingWrites", pendingWriteCount());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("updates", updates.sum());
+        stats.put("writes", writes.sum());
+        stats.put("writeFailures", writeFailures.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private static GameData copy(GameData game) {
+        ChessGame state = game.game() == null ? null : new ChessGame(game.game());
+        return new GameData(game.gameID(), game.whiteUsername(), game.blackUsername(), game.gameName(), state);
+    }
+}
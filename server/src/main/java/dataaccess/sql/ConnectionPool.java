@@ -0,0 +1,369 @@
+package dataaccess.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of database connections.
+ * <p>
+ * Callers get a proxy whose close() hands the connection back instead of closing it, so
+ * code written for short-lived connections (try-with-resources around every call) works
+ * unchanged. Idle connections are reused most recently returned first, which lets the
+ * rest sit long enough to be closed by the idle timeout when load drops. A connection
+ * that has been idle for a while is checked with isValid() before it is handed out.
+ * <p>
+ * A background task closes idle connections and reports connections that have been
+ * borrowed for longer than the leak threshold. Where they were borrowed is only recorded
+ * when captureLeakStacks is set, since taking a stack trace on every borrow is too costly
+ * to leave on.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * @param maxSize the most connections open at once, borrowed or idle
+     * @param acquireTimeout how long a caller waits for a connection when all are in use
+     * @param idleTimeout how long a connection may sit unused before it is closed
+     * @param validationInterval connections idle longer than this are validated before use
+     * @param leakThreshold how long a connection may be borrowed before it is reported;
+     *                      zero turns leak detection off
+     * @param captureLeakStacks whether to record the stack trace of each borrow, so a
+     *                          leak report says where the connection was taken
+     */
+    public record Settings(int maxSize, Duration acquireTimeout, Duration idleTimeout,
+                           Duration validationInterval, Duration leakThreshold, boolean captureLeakStacks) {
+        public Settings {
+            if (maxSize < 1) {
+                throw new IllegalArgumentException("Pool size must be positive");
+            }
+        }
+
+        public Settings(int maxSize, Duration acquireTimeout, Duration idleTimeout,
+                        Duration validationInterval, Duration leakThreshold) {
+            this(maxSize, acquireTimeout, idleTimeout, validationInterval, leakThreshold, false);
+        }
+    }
+
+    private static final class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowedFrom;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical, long now) {
+            this.physical = physical;
+            this.lastUsedAt = now;
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final Settings settings;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger open = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final ScheduledExecutorService housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final LongAdder borrows = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder idleEvictions = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+
+        long period = Math.max(100, Math.min(settings.idleTimeout().toMillis(), leakCheckPeriod()) / 2);
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    private long leakCheckPeriod() {
+        long threshold = settings.leakThreshold().toMillis();
+        return threshold > 0 ? threshold : Long.MAX_VALUE;
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout if all are in use. Closing
+     * the returned connection gives it back to the pool.
+     *
+     * @throws SQLException if none became free in time or a new one could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted waiting for a connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLException("Timed out after " + settings.acquireTimeout().toMillis()
+                    + "ms waiting for a connection; all " + settings.maxSize() + " are in use");
+        }
+
+        try {
+            PooledConnection connection = takeIdle();
+            if (connection == null) {
+                connection = new PooledConnection(factory.open(), System.nanoTime());
+                open.incrementAndGet();
+                created.increment();
+            }
+            return lend(connection);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the most recently used idle connection that is still valid, or null
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            long idleFor = System.nanoTime() - connection.lastUsedAt;
+            if (idleFor < settings.validationInterval().toNanos() || isValid(connection)) {
+                return connection;
+            }
+            validationFailures.increment();
+            discard(connection);
+        }
+        return null;
+    }
+
+    private static boolean isValid(PooledConnection connection) {
+        try {
+            return connection.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lend(PooledConnection connection) {
+        connection.borrowedAt = System.nanoTime();
+        connection.leakReported = false;
+        connection.borrowedFrom = settings.captureLeakStacks() && !settings.leakThreshold().isZero()
+                ? new Exception("Connection borrowed here")
+                : null;
+        borrowed.add(connection);
+        borrows.increment();
+
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Lease(connection));
+    }
+
+    /**
+     * Puts a returned connection back, resetting anything a caller may have changed
+     */
+    private void giveBack(PooledConnection connection) {
+        borrowed.remove(connection);
+        connection.borrowedFrom = null;
+        try {
+            if (closed || connection.physical.isClosed()) {
+                discard(connection);
+                return;
+            }
+            if (!connection.physical.getAutoCommit()) {
+                connection.physical.rollback();
+                connection.physical.setAutoCommit(true);
+            }
+            connection.lastUsedAt = System.nanoTime();
+            idle.offerFirst(connection);
+        } catch (SQLException e) {
+            discard(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection connection) {
+        open.decrementAndGet();
+        try {
+            connection.physical.close();
+        } catch (SQLException e) {
+            // Already broken; nothing else to release
+        }
+    }
+
+    private void houseKeep() {
+        long now = System.nanoTime();
+
+        // The least recently used are at the tail
+        Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+        while (oldestFirst.hasNext()) {
+            PooledConnection connection = oldestFirst.next();
+            if (now - connection.lastUsedAt < settings.idleTimeout().toNanos()) {
+                break;
+            }
+            if (idle.removeFirstOccurrence(connection)) {
+                idleEvictions.increment();
+                discard(connection);
+            }
+        }
+
+        long threshold = settings.leakThreshold().toNanos();
+        if (threshold == 0) {
+            return;
+        }
+        for (PooledConnection connection : borrowed) {
+            if (!connection.leakReported && now - connection.borrowedAt > threshold) {
+                connection.leakReported = true;
+                leaks.increment();
+                Throwable borrowedFrom = connection.borrowedFrom;
+                if (borrowedFrom != null) {
+                    LOG.warn("Connection has been borrowed for more than {}ms without being closed",
+                            settings.leakThreshold().toMillis(), borrowedFrom);
+                } else {
+                    LOG.warn("Connection has been borrowed for more than {}ms without being closed;"
+                            + " set db.pool.captureLeakStacks=true to see where",
+                            settings.leakThreshold().toMillis());
+                }
+            }
+        }
+    }
+
+    private void recordWait(long nanos) {
+        waitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Closes idle connections and stops lending; borrowed connections are closed as they
+     * come back
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            discard(connection);
+        }
+    }
+
+    /**
+     * @return counters for the metrics endpoint, with wait times in milliseconds
+     */
+    public Map<String, Object> stats() {
+        long borrowCount = borrows.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxSize", settings.maxSize());
+        stats.put("open", open.get());
+        stats.put("active", borrowed.size());
+        stats.put("idle", idle.size());
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("borrows", borrowCount);
+        stats.put("created", created.sum());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("validationFailures", validationFailures.sum());
+        stats.put("idleEvictions", idleEvictions.sum());
+        stats.put("leaks", leaks.sum());
+        stats.put("averageWaitMs", borrowCount == 0 ? 0.0 : waitNanos.sum() / 1e6 / borrowCount);
+        stats.put("maxWaitMs", maxWaitNanos.get() / 1e6);
+        return stats;
+    }
+
+    /**
+     * The connection a caller holds. Everything but close() and isClosed() goes to the
+     * physical connection until the caller closes it, after which every call fails.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection connection;
+        // Set once by close. Atomic rather than guarded by a monitor, since giving the
+        // connection back rolls back over the network and a virtual thread blocked inside
+        // a synchronized block would pin its carrier.
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        Lease(PooledConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (returned.compareAndSet(false, true)) {
+                        giveBack(connection);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned.get() || connection.physical.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled " + connection.physical;
+                }
+                default -> {
+                    if (returned.get()) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+                }
+            }
+
+            try {
+                return method.invoke(connection.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
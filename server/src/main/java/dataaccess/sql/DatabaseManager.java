@@ -5,14 +5,23 @@ import dataaccess.DataAccessException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
 import java.util.Properties;
 
 public class DatabaseManager {
     private static String databaseName;
-    private static String dbUsername;
-    private static String dbPassword;
+    private static Properties driverProperties;
     private static String connectionUrl;
+    private static ConnectionPool.Settings poolSettings;
+
+    // Opened on first use, since the database it points at may not exist before then.
+    // Volatile so getConnection() can read it without taking the class lock.
+    private static volatile ConnectionPool pool;
+
+    private static final String DRIVER_PREFIX = "db.driver.";
 
     private static final String[] CREATE_STATEMENTS = {
             """
@@ -30,6 +39,12 @@ public class DatabaseManager {
             black_username VARCHAR(50),
             game_name VARCHAR(100),
             game_state TEXT,
+            game_state_bin BLOB,
+            snapshot_ply INT NOT NULL DEFAULT 0,
+            game_over BOOLEAN NOT NULL DEFAULT FALSE,
+        
+            INDEX idx_games_over (game_over, game_id),
+            INDEX idx_games_name (game_name),
         
             FOREIGN KEY (white_username)
                 REFERENCES users(username)
@@ -39,6 +54,21 @@ public class DatabaseManager {
                 REFERENCES users(username)
                 ON DELETE SET NULL
         ) ENGINE=InnoDB
+        """,
+
+            """
+        CREATE TABLE IF NOT EXISTS game_moves (
+            game_id INT NOT NULL,
+            ply INT NOT NULL,
+            move SMALLINT NOT NULL,
+            played_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3),
+        
+            PRIMARY KEY (game_id, ply),
+        
+            FOREIGN KEY (game_id)
+                REFERENCES games(game_id)
+                ON DELETE CASCADE
+        ) ENGINE=InnoDB
         """,
 
             """
@@ -53,6 +83,26 @@ public class DatabaseManager {
         """
     };
 
+    // Columns added after the tables were first released, as { table, column, definition }.
+    // CREATE TABLE IF NOT EXISTS leaves existing tables alone, so these are added on startup
+    // when missing. game_over starts out nullable so the rows that predate it can be told
+    // apart until they are backfilled; see configureDatabase().
+    private static final String[][] ADDED_COLUMNS = {
+            { "games", "game_state_bin", "BLOB AFTER game_state" },
+            { "games", "snapshot_ply", "INT NOT NULL DEFAULT 0 AFTER game_state_bin" },
+            { "games", "game_over", "BOOLEAN NULL AFTER snapshot_ply" }
+    };
+
+    // Indexes added after the tables were first released, as { table, index, columns }, and
+    // added on startup when missing in the same way. The lobby pages through games in
+    // game_id order, so a status filter reads one range of (game_over, game_id); the player
+    // filters use the foreign key indexes, which InnoDB already orders by game_id within
+    // each username.
+    private static final String[][] ADDED_INDEXES = {
+            { "games", "idx_games_over", "game_over, game_id" },
+            { "games", "idx_games_name", "game_name" }
+    };
+
     /**
      * Static Initialization (Initializes the fields of DatabaseManager on first reference to it)
      * Load the database information for the db.properties file.
@@ -68,6 +118,12 @@ public class DatabaseManager {
             }
             Properties props = new Properties();
             props.load(propStream);
+            // Any db.* setting can be overridden with a system property of the same name
+            for (String name : System.getProperties().stringPropertyNames()) {
+                if (name.startsWith("db.")) {
+                    props.setProperty(name, System.getProperty(name));
+                }
+            }
             loadProperties(props);
         } catch (Exception ex) {
             throw new RuntimeException("unable to process db.properties", ex);
@@ -76,12 +132,33 @@ public class DatabaseManager {
 
     private static void loadProperties(Properties props) {
         databaseName = props.getProperty("db.name");
-        dbUsername = props.getProperty("db.user");
-        dbPassword = props.getProperty("db.password");
+
+        // db.driver.* settings go to the JDBC driver as connection properties
+        driverProperties = new Properties();
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith(DRIVER_PREFIX)) {
+                driverProperties.setProperty(name.substring(DRIVER_PREFIX.length()), props.getProperty(name));
+            }
+        }
+        driverProperties.setProperty("user", props.getProperty("db.user"));
+        driverProperties.setProperty("password", props.getProperty("db.password"));
 
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
         connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+
+        poolSettings = new ConnectionPool.Settings(
+                Integer.parseInt(props.getProperty("db.pool.maxSize", "10")),
+                millis(props, "db.pool.acquireTimeoutMs", 5000),
+                millis(props, "db.pool.idleTimeoutMs", 600000),
+                millis(props, "db.pool.validationIntervalMs", 5000),
+                millis(props, "db.pool.leakThresholdMs", 60000),
+                Boolean.parseBoolean(props.getProperty("db.pool.captureLeakStacks", "false").trim()));
+    }
+
+    private static Duration millis(Properties props, String name, long defaultValue) {
+        String value = props.getProperty(name);
+        return Duration.ofMillis(value == null ? defaultValue : Long.parseLong(value.trim()));
     }
 
     /**
@@ -89,7 +166,7 @@ public class DatabaseManager {
      */
     static public void createDatabase() throws DataAccessException {
         var statement = "CREATE DATABASE IF NOT EXISTS " + databaseName;
-        try (var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
+        try (var conn = DriverManager.getConnection(connectionUrl, driverProperties);
              var preparedStatement = conn.prepareStatement(statement)) {
             preparedStatement.executeUpdate();
         } catch (SQLException ex) {
@@ -107,17 +184,99 @@ public class DatabaseManager {
                     ps.executeUpdate();
                 }
             }
+            for (String[] column : ADDED_COLUMNS) {
+                addColumnIfMissing(conn, column[0], column[1], column[2]);
+            }
+            for (String[] index : ADDED_INDEXES) {
+                addIndexIfMissing(conn, index[0], index[1], index[2]);
+            }
+
+            // Games stored before game_over existed get it from their state, and only then
+            // does the column take its final definition. A backfill cut short leaves the
+            // column nullable, so it resumes on the next startup.
+            if (isNullable(conn, "games", "game_over")) {
+                new SQLGameDAO().backfillGameOver(conn);
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "ALTER TABLE games MODIFY COLUMN game_over BOOLEAN NOT NULL DEFAULT FALSE")) {
+                    ps.executeUpdate();
+                }
+            }
         } catch (SQLException e) {
             throw new DataAccessException("Database initialization failed", e);
         }
     }
 
+    /**
+     * MySQL has no ADD COLUMN IF NOT EXISTS, so look the column up first
+     */
+    private static void addColumnIfMissing(Connection conn, String table, String column, String definition)
+            throws SQLException {
+        String sql = """
+                SELECT 1 FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA=? AND TABLE_NAME=? AND COLUMN_NAME=?
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, databaseName);
+            ps.setString(2, table);
+            ps.setString(3, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition)) {
+            ps.executeUpdate();
+        }
+    }
+
+    private static boolean isNullable(Connection conn, String table, String column) throws SQLException {
+        String sql = """
+                SELECT IS_NULLABLE FROM information_schema.COLUMNS
+                WHERE TABLE_SCHEMA=? AND TABLE_NAME=? AND COLUMN_NAME=?
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, databaseName);
+            ps.setString(2, table);
+            ps.setString(3, column);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && "YES".equals(rs.getString(1));
+            }
+        }
+    }
+
+    /**
+     * MySQL has no CREATE INDEX IF NOT EXISTS either
+     */
+    private static void addIndexIfMissing(Connection conn, String table, String index, String columns)
+            throws SQLException {
+        String sql = """
+                SELECT 1 FROM information_schema.STATISTICS
+                WHERE TABLE_SCHEMA=? AND TABLE_NAME=? AND INDEX_NAME=?
+                """;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, databaseName);
+            ps.setString(2, table);
+            ps.setString(3, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return;
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "CREATE INDEX " + index + " ON " + table + " (" + columns + ")")) {
+            ps.executeUpdate();
+        }
+    }
+
     /**
      * WRAPPER FOR JAVA SQL getConnection()
-     * Create a connection to the database and sets the catalog based upon the
-     * properties specified in db.properties. Connections to the database should
-     * be short-lived, and you must close the connection when you are done with it.
-     * The easiest way to do that is with a try-with-resource block.
+     * Borrows a connection from the pool, with the catalog set to the database named in
+     * db.properties. Connections should be short-lived, and you must close the connection
+     * when you are done with it, which returns it to the pool. The easiest way to do that
+     * is with a try-with-resource block.
      * <br/>
      * <code>
      * try (var conn = DatabaseManager.getConnection()) {
@@ -127,12 +286,44 @@ public class DatabaseManager {
      */
     static Connection getConnection() throws DataAccessException {
         try {
-            //do not wrap the following line with a try-with-resources
-            var conn = DriverManager.getConnection(connectionUrl, dbUsername, dbPassword);
-            conn.setCatalog(databaseName);
-            return conn;
+            return pool().getConnection();
         } catch (SQLException ex) {
             throw new DataAccessException("failed to get connection", ex);
         }
     }
+
+    private static ConnectionPool pool() {
+        ConnectionPool current = pool;
+        if (current != null) {
+            return current;
+        }
+        synchronized (DatabaseManager.class) {
+            if (pool == null) {
+                pool = new ConnectionPool(() -> {
+                    var conn = DriverManager.getConnection(connectionUrl, driverProperties);
+                    conn.setCatalog(databaseName);
+                    return conn;
+                }, poolSettings);
+            }
+            return pool;
+        }
+    }
+
+    /**
+     * @return the connection pool's counters, or an empty map if it has not been opened
+     */
+    public static Map<String, Object> poolStats() {
+        ConnectionPool current = pool;
+        return current == null ? Map.of() : current.stats();
+    }
+
+    /**
+     * Closes the pooled connections. A later getConnection() opens a new pool.
+     */
+    public static synchronized void closePool() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
+        }
+    }
 }
@@ -2,37 +2,157 @@ package dataaccess.sql;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.gson.Gson;
 
 import chess.ChessGame;
+import chess.ChessGameCodec;
+import chess.ChessMove;
+import chess.InvalidMoveException;
 import dataaccess.DataAccessException;
 import dataaccess.GameDAO;
 import model.GameData;
+import model.GameQuery;
+import model.GameSummary;
+import serialization.Serializer;
 
+/**
+ * Stores each game as a snapshot in the games table plus a log of the moves played since,
+ * in game_moves. A move only appends a row; the snapshot is rewritten every
+ * snapshotInterval plies, when the game ends, and on any other update. Loading a game
+ * replays the moves after its snapshot. Snapshots don't hold the repetition history, so
+ * getGame also reads the reversible moves just before the snapshot and takes them back to
+ * rebuild it.
+ */
 public class SQLGameDAO implements GameDAO {
 
-    private final Gson gson = new Gson();
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 20;
+
+    private final Gson gson = Serializer.GSON;
+    private final int snapshotInterval;
+
+    public SQLGameDAO() {
+        this(DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    public SQLGameDAO(int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be positive");
+        }
+        this.snapshotInterval = snapshotInterval;
+    }
 
     @Override
     public List<GameData> listGames() throws DataAccessException {
         String sql = "SELECT * FROM games";
+        String tailSql = """
+                SELECT m.game_id, m.move FROM game_moves m
+                JOIN games g ON g.game_id = m.game_id
+                WHERE m.ply > g.snapshot_ply
+                ORDER BY m.game_id, m.ply
+                """;
         List<GameData> games = new ArrayList<>();
 
+        try (Connection conn = DatabaseManager.getConnection()) {
+            Map<Integer, List<Integer>> tails = new HashMap<>();
+            try (PreparedStatement ps = conn.prepareStatement(tailSql); ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    tails.computeIfAbsent(rs.getInt("game_id"), id -> new ArrayList<>()).add(rs.getInt("move"));
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("game_id");
+                    String white = rs.getString("white_username");
+                    String black = rs.getString("black_username");
+                    String name = rs.getString("game_name");
+
+                    ChessGame game = readGame(rs);
+                    replay(game, tails.getOrDefault(id, List.of()));
+
+                    games.add(new GameData(id, white, black, name, game));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error listing games", e);
+        }
+        return games;
+    }
+
+    /**
+     * Reads only the columns the lobby shows, leaving the game state and move log alone
+     */
+    @Override
+    public List<GameSummary> listGameSummaries() throws DataAccessException {
+        String sql = "SELECT game_id, white_username, black_username, game_name FROM games ORDER BY game_id";
+        List<GameSummary> games = new ArrayList<>();
+
         try (Connection conn = DatabaseManager.getConnection(); PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
 
             while (rs.next()) {
-                int id = rs.getInt("game_id");
-                String white = rs.getString("white_username");
-                String black = rs.getString("black_username");
-                String name = rs.getString("game_name");
+                games.add(new GameSummary(
+                        rs.getInt("game_id"),
+                        rs.getString("white_username"),
+                        rs.getString("black_username"),
+                        rs.getString("game_name")));
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error listing games", e);
+        }
+        return games;
+    }
 
-                String gameJson = rs.getString("game_state");
-                ChessGame game = gson.fromJson(gameJson, ChessGame.class);
+    /**
+     * Reads one page by keyset: game_id greater than the cursor, in game_id order, so a
+     * page costs the same however deep into the lobby it is
+     */
+    @Override
+    public List<GameSummary> listGameSummaries(GameQuery query) throws DataAccessException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT game_id, white_username, black_username, game_name FROM games WHERE game_id > ?");
+        List<Object> params = new ArrayList<>();
+        params.add(query.afterGameID());
 
-                games.add(new GameData(id, white, black, name, game));
+        if (query.openSeats()) {
+            sql.append(" AND (white_username IS NULL OR black_username IS NULL)");
+        }
+        if (query.player() != null) {
+            sql.append(" AND (white_username = ? OR black_username = ?)");
+            params.add(query.player());
+            params.add(query.player());
+        }
+        if (query.gameOver() != null) {
+            sql.append(" AND game_over = ?");
+            params.add(query.gameOver());
+        }
+        if (query.namePrefix() != null) {
+            // Ignores case under the column's collation, as GameQuery.matches does, and
+            // can still use idx_games_name
+            sql.append(" AND game_name LIKE ? ESCAPE '!'");
+            params.add(query.namePrefix().replaceAll("[!%_]", "!$0") + "%");
+        }
+        sql.append(" ORDER BY game_id LIMIT ?");
+        params.add(query.limit());
+
+        List<GameSummary> games = new ArrayList<>();
+        try (Connection conn = DatabaseManager.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    games.add(new GameSummary(
+                            rs.getInt("game_id"),
+                            rs.getString("white_username"),
+                            rs.getString("black_username"),
+                            rs.getString("game_name")));
+                }
             }
         } catch (SQLException e) {
             throw new DataAccessException("Error listing games", e);
@@ -52,8 +172,8 @@ public class SQLGameDAO implements GameDAO {
                     String black = rs.getString("black_username");
                     String name = rs.getString("game_name");
 
-                    String gameJson = rs.getString("game_state");
-                    ChessGame game = gson.fromJson(gameJson, ChessGame.class);
+                    ChessGame game = readGame(rs);
+                    replayWithHistory(conn, gameID, rs.getInt("snapshot_ply"), game);
 
                     return new GameData(gameID, white, black, name, game);
                 }
@@ -67,8 +187,8 @@ public class SQLGameDAO implements GameDAO {
     @Override
     public int createGame(GameData gameData) throws DataAccessException {
         String sql = """
-                INSERT INTO games (white_username, black_username, game_name, game_state)
-                VALUES (?, ?, ?, ?)
+                INSERT INTO games (white_username, black_username, game_name, game_state_bin, snapshot_ply, game_over)
+                VALUES (?, ?, ?, ?, ?, ?)
                 """;
 
         if (gameData.gameName() == null) {
@@ -81,7 +201,9 @@ public class SQLGameDAO implements GameDAO {
             ps.setString(1, gameData.whiteUsername());
             ps.setString(2, gameData.blackUsername());
             ps.setString(3, gameData.gameName());
-            ps.setString(4, gson.toJson(gameData.game()));
+            ps.setBytes(4, writeGame(gameData.game()));
+            ps.setInt(5, plyOf(gameData.game()));
+            ps.setBoolean(6, isOver(gameData.game()));
 
             ps.executeUpdate();
 
@@ -100,7 +222,8 @@ public class SQLGameDAO implements GameDAO {
     public void updateGame(int gameID, GameData updatedGame) throws DataAccessException {
         String sql = """
                 UPDATE games
-                SET white_username=?, black_username=?, game_name=?, game_state=?
+                SET white_username=?, black_username=?, game_name=?, game_state=NULL, game_state_bin=?, snapshot_ply=?,
+                    game_over=?
                 WHERE game_id=?
                 """;
 
@@ -108,8 +231,10 @@ public class SQLGameDAO implements GameDAO {
             ps.setString(1, updatedGame.whiteUsername());
             ps.setString(2, updatedGame.blackUsername());
             ps.setString(3, updatedGame.gameName());
-            ps.setString(4, gson.toJson(updatedGame.game()));
-            ps.setInt(5, gameID);
+            ps.setBytes(4, writeGame(updatedGame.game()));
+            ps.setInt(5, plyOf(updatedGame.game()));
+            ps.setBoolean(6, isOver(updatedGame.game()));
+            ps.setInt(7, gameID);
 
             ps.executeUpdate();
 
@@ -118,6 +243,200 @@ public class SQLGameDAO implements GameDAO {
         }
     }
 
+    /**
+     * Sets the seat in one conditional UPDATE, so two players can't both take it and the
+     * stored game state is never touched
+     */
+    @Override
+    public boolean claimSeat(int gameID, ChessGame.TeamColor color, String username) throws DataAccessException {
+        String column = color == ChessGame.TeamColor.WHITE ? "white_username" : "black_username";
+        String sql = "UPDATE games SET " + column + "=? WHERE game_id=? AND " + column + " IS NULL";
+
+        try (Connection conn = DatabaseManager.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, username);
+            ps.setInt(2, gameID);
+            if (ps.executeUpdate() == 1) {
+                return true;
+            }
+
+        } catch (SQLException e) {
+            throw new DataAccessException("Error joining game", e);
+        }
+
+        // Nothing matched: either the seat is taken or there is no such game
+        if (getGame(gameID) == null) {
+            throw new DataAccessException("No game with ID " + gameID);
+        }
+        return false;
+    }
+
+    /**
+     * Appends the moves to the log, and rewrites the snapshot too if they cross a multiple
+     * of the snapshot interval or end the game. Both happen in one transaction.
+     */
+    @Override
+    public void recordMoves(int gameID, List<ChessMove> moves, GameData updatedGame) throws DataAccessException {
+        ChessGame game = updatedGame.game();
+        if (moves.isEmpty() || game == null) {
+            updateGame(gameID, updatedGame);
+            return;
+        }
+
+        String insertSql = "INSERT INTO game_moves (game_id, ply, move) VALUES (?, ?, ?)";
+        String snapshotSql = """
+                UPDATE games
+                SET game_state=NULL, game_state_bin=?, snapshot_ply=?, game_over=?
+                WHERE game_id=?
+                """;
+
+        int lastPly = plyOf(game);
+        int firstPly = lastPly - moves.size() + 1;
+        boolean snapshot = game.isGameOver() || lastPly / snapshotInterval != (firstPly - 1) / snapshotInterval;
+
+        try (Connection conn = DatabaseManager.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement ps = conn.prepareStatement(insertSql)) {
+                    for (int i = 0; i < moves.size(); i++) {
+                        ps.setInt(1, gameID);
+                        ps.setInt(2, firstPly + i);
+                        ps.setShort(3, (short) ChessGameCodec.encodeMove(moves.get(i)));
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                if (snapshot) {
+                    try (PreparedStatement ps = conn.prepareStatement(snapshotSql)) {
+                        ps.setBytes(1, writeGame(game));
+                        ps.setInt(2, lastPly);
+                        ps.setBoolean(3, game.isGameOver());
+                        ps.setInt(4, gameID);
+                        ps.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error recording moves", e);
+        }
+    }
+
+    /**
+     * Sets game_over on the rows stored before that column existed, which it leaves NULL,
+     * from each game's state with its logged moves replayed
+     */
+    void backfillGameOver(Connection conn) throws SQLException, DataAccessException {
+        String select = """
+                SELECT game_id, game_state, game_state_bin, snapshot_ply
+                FROM games WHERE game_over IS NULL
+                """;
+        String update = "UPDATE games SET game_over=? WHERE game_id=?";
+
+        try (PreparedStatement read = conn.prepareStatement(select);
+             PreparedStatement write = conn.prepareStatement(update);
+             ResultSet rs = read.executeQuery()) {
+            while (rs.next()) {
+                int gameID = rs.getInt("game_id");
+                ChessGame game = readGame(rs);
+                replay(game, readMoves(conn, gameID, rs.getInt("snapshot_ply")));
+
+                write.setBoolean(1, isOver(game));
+                write.setInt(2, gameID);
+                write.addBatch();
+            }
+            write.executeBatch();
+        }
+    }
+
+    /**
+     * @return the moves played after the given ply, oldest first
+     */
+    private static List<Integer> readMoves(Connection conn, int gameID, int afterPly) throws SQLException {
+        String sql = "SELECT move FROM game_moves WHERE game_id=? AND ply>? ORDER BY ply";
+        List<Integer> moves = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, gameID);
+            ps.setInt(2, afterPly);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    moves.add(rs.getInt("move"));
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * Replays the moves after the snapshot, first rebuilding the repetition history the
+     * snapshot doesn't store from the reversible moves that led up to it
+     */
+    private static void replayWithHistory(Connection conn, int gameID, int snapshotPly, ChessGame game)
+            throws SQLException, DataAccessException {
+        if (game == null) {
+            return;
+        }
+        int from = Math.max(0, snapshotPly - game.getHalfmoveClock());
+        List<Integer> moves = readMoves(conn, gameID, from);
+        int before = Math.min(snapshotPly - from, moves.size());
+        try {
+            ChessGameCodec.rebuildHistory(game, moves.subList(0, before));
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("Error replaying game moves", e);
+        }
+        replay(game, moves.subList(before, moves.size()));
+    }
+
+    private static void replay(ChessGame game, List<Integer> moves) throws DataAccessException {
+        if (game == null) {
+            return;
+        }
+        try {
+            for (int move : moves) {
+                game.makeMove(ChessGameCodec.decodeMove(move));
+            }
+        } catch (InvalidMoveException | IllegalArgumentException e) {
+            throw new DataAccessException("Error replaying game moves", e);
+        }
+    }
+
+    private static boolean isOver(ChessGame game) {
+        return game != null && game.isGameOver();
+    }
+
+    /**
+     * @return the number of half-moves played to reach this game's position
+     */
+    private static int plyOf(ChessGame game) {
+        if (game == null) {
+            return 0;
+        }
+        return (game.getFullmoveNumber() - 1) * 2 + (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0);
+    }
+
+    private static byte[] writeGame(ChessGame game) {
+        return game == null ? null : ChessGameCodec.encode(game);
+    }
+
+    /**
+     * Reads the binary game state, falling back to the JSON that rows written before the
+     * binary column existed still hold. Such rows switch over on their next update.
+     */
+    private ChessGame readGame(ResultSet rs) throws SQLException, DataAccessException {
+        byte[] encoded = rs.getBytes("game_state_bin");
+        if (encoded == null) {
+            String gameJson = rs.getString("game_state");
+            return gameJson == null ? null : gson.fromJson(gameJson, ChessGame.class);
+        }
+        try {
+            return ChessGameCodec.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            throw new DataAccessException("Error reading game state", e);
+        }
+    }
+
     @Override
     public void clear() throws DataAccessException {
         String sql = "DELETE FROM games";
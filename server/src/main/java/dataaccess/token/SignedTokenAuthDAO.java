@@ -0,0 +1,258 @@
+package dataaccess.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import dataaccess.AuthDAO;
+import dataaccess.DataAccessException;
+import model.AuthData;
+
+/**
+ * AuthDAO whose tokens carry their own proof, so checking one is an HMAC in memory and
+ * never a query.
+ * <p>
+ * A token is {@code keyId.username.epoch.issuedAt.nonce.signature}, with the username,
+ * nonce and signature base64url encoded and the signature an HMAC-SHA256 of everything
+ * before it. Any node holding the key can verify it. The key ID lets keys be rotated:
+ * tokens are signed with the current key and accepted under any configured one.
+ * <p>
+ * Tokens expire after maxAge. Logging out revokes a token until it would have expired
+ * anyway. clear() moves to the next epoch, and tokens from an earlier epoch are rejected,
+ * so it revokes every token issued before it regardless of the clock.
+ * <p>
+ * Revocations are not persisted or shared. The revocation set and the epoch live only in
+ * this node's memory: a logged out token stays usable on other nodes, and on this one
+ * again after a restart, until it expires, and a restart also undoes clear(). To revoke
+ * every token everywhere, start all nodes with a higher auth.token.epoch, or rotate the
+ * key.
+ */
+public class SignedTokenAuthDAO implements AuthDAO {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SignedTokenAuthDAO.class);
+
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofHours(24);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    // The revocation set is first pruned of expired tokens at this size
+    private static final int MIN_PRUNE_SIZE = 1024;
+
+    private record Token(String username, long epoch, long issuedAt, String signed, byte[] signature) {}
+
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final String currentKeyId;
+    private final long maxAgeMillis;
+    private final SecureRandom random = new SecureRandom();
+
+    // Logged out tokens, with the time they expire and can be forgotten. Expired ones are
+    // pruned once the set reaches pruneAt, which then moves to twice what is left, so a
+    // logout costs amortized constant time and the set stays within twice the tokens that
+    // still need remembering.
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final AtomicInteger pruneAt = new AtomicInteger(MIN_PRUNE_SIZE);
+    // Tokens from an earlier epoch were revoked by clear()
+    private final AtomicLong epoch;
+
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param keys the HMAC keys by key ID
+     * @param currentKeyId the key new tokens are signed with
+     * @param maxAge how long a token is accepted after it is issued
+     */
+    public SignedTokenAuthDAO(Map<String, byte[]> keys, String currentKeyId, Duration maxAge) {
+        this(keys, currentKeyId, maxAge, 0);
+    }
+
+    /**
+     * @param epoch the epoch to start in; tokens from earlier epochs are rejected
+     */
+    public SignedTokenAuthDAO(Map<String, byte[]> keys, String currentKeyId, Duration maxAge, long epoch) {
+        if (!keys.containsKey(currentKeyId)) {
+            throw new IllegalArgumentException("No key with ID " + currentKeyId);
+        }
+        keys.forEach((keyId, key) -> {
+            if (keyId.isEmpty() || keyId.contains(".")) {
+                throw new IllegalArgumentException("Invalid key ID " + keyId);
+            }
+            if (key.length < 32) {
+                throw new IllegalArgumentException("Key " + keyId + " must be at least 256 bits");
+            }
+            this.keys.put(keyId, new SecretKeySpec(key, ALGORITHM));
+        });
+        this.currentKeyId = currentKeyId;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.epoch = new AtomicLong(epoch);
+    }
+
+    /**
+     * Builds the DAO from system properties. auth.token.keys lists the keys as
+     * {@code id:base64key} separated by commas, the first being the one that signs, and
+     * auth.token.maxAgeMinutes sets how long tokens last, and auth.token.epoch the epoch to
+     * start in. Without keys a random one is made,
+     * which no other node knows and which is gone after a restart.
+     */
+    public static SignedTokenAuthDAO fromSystemProperties() {
+        Map<String, byte[]> keys = new LinkedHashMap<>();
+        String configured = System.getProperty("auth.token.keys", "").trim();
+        if (configured.isEmpty()) {
+            LOG.warn("auth.token.keys is not set; signing tokens with a random key for this process only");
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            keys.put("local", key);
+        } else {
+            for (String entry : configured.split(",")) {
+                String[] parts = entry.trim().split(":", 2);
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("auth.token.keys entries must be id:base64key");
+                }
+                keys.put(parts[0], Base64.getDecoder().decode(parts[1]));
+            }
+        }
+        long maxAgeMinutes = Long.getLong("auth.token.maxAgeMinutes", DEFAULT_MAX_AGE.toMinutes());
+        return new SignedTokenAuthDAO(keys, keys.keySet().iterator().next(), Duration.ofMinutes(maxAgeMinutes),
+                Long.getLong("auth.token.epoch", 0));
+    }
+
+    @Override
+    public AuthData createAuth(String username) throws DataAccessException {
+        byte[] nonce = new byte[12];
+        random.nextBytes(nonce);
+        String signed = currentKeyId
+                + "." + ENCODER.encodeToString(username.getBytes(StandardCharsets.UTF_8))
+                + "." + epoch.get()
+                + "." + System.currentTimeMillis()
+                + "." + ENCODER.encodeToString(nonce);
+        String token = signed + "." + ENCODER.encodeToString(sign(keys.get(currentKeyId), signed));
+        issued.increment();
+        return new AuthData(token, username);
+    }
+
+    @Override
+    public AuthData getAuth(String authToken) throws DataAccessException {
+        Token token = verify(authToken);
+        if (token == null || revoked.containsKey(authToken)) {
+            rejected.increment();
+            return null;
+        }
+        verified.increment();
+        return new AuthData(authToken, token.username);
+    }
+
+    /**
+     * Tokens can't be stored, only issued by createAuth
+     */
+    @Override
+    public void addAuth(AuthData authData) throws DataAccessException {
+        throw new DataAccessException("Signed tokens can only be issued by createAuth");
+    }
+
+    @Override
+    public void deleteAuth(String authToken) throws DataAccessException {
+        Token token = verify(authToken);
+        if (token == null) {
+            return;
+        }
+        revoked.put(authToken, token.issuedAt + maxAgeMillis);
+
+        int threshold = pruneAt.get();
+        // Whoever moves the threshold out of reach does the pruning; the rest carry on
+        if (revoked.size() >= threshold && pruneAt.compareAndSet(threshold, Integer.MAX_VALUE)) {
+            long now = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            pruneAt.set(Math.max(MIN_PRUNE_SIZE, revoked.size() * 2));
+        }
+    }
+
+    /**
+     * Revokes every token issued so far. A token being issued at the same moment may get
+     * the old epoch, and is then revoked too.
+     */
+    @Override
+    public void clear() throws DataAccessException {
+        epoch.incrementAndGet();
+        revoked.clear();
+    }
+
+    /**
+     * @return the token's contents if it is well formed, correctly signed and current
+     */
+    private Token verify(String authToken) throws DataAccessException {
+        if (authToken == null) {
+            return null;
+        }
+        String[] parts = authToken.split("\\.", -1);
+        if (parts.length != 6) {
+            return null;
+        }
+        SecretKeySpec key = keys.get(parts[0]);
+        if (key == null) {
+            return null;
+        }
+
+        Token token;
+        try {
+            int end = authToken.lastIndexOf('.');
+            token = new Token(new String(DECODER.decode(parts[1]), StandardCharsets.UTF_8),
+                    Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]),
+                    authToken.substring(0, end),
+                    DECODER.decode(parts[5]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        if (!MessageDigest.isEqual(sign(key, token.signed), token.signature)) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (token.epoch < epoch.get() || now - token.issuedAt >= maxAgeMillis) {
+            return null;
+        }
+        return token;
+    }
+
+    private static byte[] sign(SecretKeySpec key, String signed) throws DataAccessException {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(signed.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new DataAccessException("Unable to sign token", e);
+        }
+    }
+
+    /**
+     * @return counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("keyId", currentKeyId);
+        stats.put("epoch", epoch.get());
+        stats.put("issued", issued.sum());
+        stats.put("verified", verified.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("revoked", revoked.size());
+        return stats;
+    }
+}
@@ -6,11 +6,12 @@ import com.google.gson.Gson;
 import io.javalin.http.Context;
 
 import http.service.DBService;
+import serialization.Serializer;
 
 public class DBHandler {
 
     private final DBService service;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
 
     public DBHandler(DBService service) {
         this.service = service;
@@ -16,11 +16,12 @@ import dto.game.ListGamesResult;
 import http.service.GameService;
 import http.service.exceptions.AlreadyTakenException;
 import http.service.exceptions.UnauthorizedException;
+import serialization.Serializer;
 
 public class GameHandler {
 
     private final GameService service;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
 
     public GameHandler (GameService service) {
         this.service = service;
@@ -29,12 +30,24 @@ public class GameHandler {
     public void listGames(Context ctx) {
         try {
             String authToken = ctx.header("authorization");
-
-            ListGamesResult result = service.listGames(new ListGamesRequest(authToken));
+            String status = ctx.queryParam("status");
+
+            ListGamesResult result = service.listGames(new ListGamesRequest(
+                    authToken,
+                    intParam(ctx, "after"),
+                    intParam(ctx, "limit"),
+                    Boolean.parseBoolean(ctx.queryParam("open")),
+                    Boolean.parseBoolean(ctx.queryParam("mine")),
+                    status == null ? null : ListGamesRequest.GameStatus.valueOf(status.toUpperCase()),
+                    ctx.queryParam("name")
+            ));
 
             ctx.status(200);
             ctx.result(gson.toJson(result));
 
+        } catch (IllegalArgumentException e) {
+            ctx.status(400);
+            ctx.result(gson.toJson(Map.of("message", "Error: bad request")));
         } catch (UnauthorizedException e) {
             ctx.status(401);
             ctx.result(gson.toJson(Map.of("message", "Error: unauthorized")));
@@ -44,6 +57,11 @@ public class GameHandler {
         }
     }
 
+    private static Integer intParam(Context ctx, String name) {
+        String value = ctx.queryParam(name);
+        return value == null ? null : Integer.parseInt(value);
+    }
+
     public void createGame(Context ctx) {
         try {
             String authToken = ctx.header("authorization");
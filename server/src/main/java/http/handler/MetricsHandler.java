@@ -0,0 +1,33 @@
+package http.handler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import io.javalin.http.Context;
+
+import serialization.Serializer;
+
+/**
+ * Serves a JSON snapshot of the server's runtime metrics. Components register a
+ * supplier under a name, and each request reads every supplier afresh.
+ */
+public class MetricsHandler {
+
+    private final Map<String, Supplier<?>> sources = new LinkedHashMap<>();
+    private final Gson gson = Serializer.GSON;
+
+    public void register(String name, Supplier<?> source) {
+        sources.put(name, source);
+    }
+
+    public void metrics(Context ctx) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<?>> source : sources.entrySet()) {
+            snapshot.put(source.getKey(), source.getValue().get());
+        }
+        ctx.status(200);
+        ctx.result(gson.toJson(snapshot));
+    }
+}
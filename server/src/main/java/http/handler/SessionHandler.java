@@ -10,13 +10,15 @@ import dto.session.LoginResult;
 import dto.session.LogoutRequest;
 
 import http.service.SessionService;
+import http.service.exceptions.OverloadedException;
 import http.service.exceptions.ServiceException;
 import http.service.exceptions.UnauthorizedException;
+import serialization.Serializer;
 
 public class SessionHandler {
 
     private final SessionService service;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
 
     public SessionHandler(SessionService service) {
         this.service = service;
@@ -36,6 +38,11 @@ public class SessionHandler {
         } catch (UnauthorizedException e) {
             ctx.status(401);
             ctx.result(gson.toJson(Map.of("message", "Error: unauthorized")));
+        } catch (OverloadedException e) {
+            // Too many hashes already waiting; ask the client to come back shortly
+            ctx.status(503);
+            ctx.header("Retry-After", "1");
+            ctx.result(gson.toJson(Map.of("message", "Error: server busy")));
         } catch (ServiceException e) {
             ctx.status(500);
             ctx.result(gson.toJson(Map.of("message", "Error: " + e.getMessage())));
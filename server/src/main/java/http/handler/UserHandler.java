@@ -10,12 +10,14 @@ import dto.user.RegisterResult;
 
 import http.service.UserService;
 import http.service.exceptions.AlreadyExistsException;
+import http.service.exceptions.OverloadedException;
 import http.service.exceptions.ServiceException;
+import serialization.Serializer;
 
 public class UserHandler {
 
     private final UserService service;
-    private final Gson gson = new Gson();
+    private final Gson gson = Serializer.GSON;
 
     public UserHandler(UserService service) {
         this.service = service;
@@ -40,6 +42,11 @@ public class UserHandler {
         } catch (AlreadyExistsException e) {
             ctx.status(403);
             ctx.result(gson.toJson(Map.of("message", "Error: already taken")));
+        } catch (OverloadedException e) {
+            // Too many hashes already waiting; ask the client to come back shortly
+            ctx.status(503);
+            ctx.header("Retry-After", "1");
+            ctx.result(gson.toJson(Map.of("message", "Error: server busy")));
         } catch (ServiceException e) {
             ctx.status(500);
             ctx.result(gson.toJson(Map.of("message", "Error: internal error")));
@@ -17,6 +17,8 @@ import dto.game.ListGamesResult;
 
 import model.AuthData;
 import model.GameData;
+import model.GameQuery;
+import model.GameSummary;
 
 import http.service.exceptions.AlreadyTakenException;
 import http.service.exceptions.ServiceException;
@@ -24,6 +26,9 @@ import http.service.exceptions.UnauthorizedException;
 
 public class GameService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final AuthDAO authDAO;
     private final GameDAO gameDAO;
 
@@ -44,23 +49,57 @@ public class GameService {
                 throw new UnauthorizedException("Invalid auth token");
             }
 
-            List<GameInfo> gameInfos = gameDAO.listGames()
-                    .stream()
-                    .map(g -> new GameInfo(
-                            g.gameID(),
-                            g.whiteUsername(),
-                            g.blackUsername(),
-                            g.gameName()
-                    ))
-                    .toList();
+            if (listGamesRequest.paged()) {
+                return listGamesPage(listGamesRequest, auth);
+            }
 
-            return new ListGamesResult(gameInfos);
+            return new ListGamesResult(toGameInfos(gameDAO.listGameSummaries()));
 
         } catch (DataAccessException e) {
             throw new ServiceException("Server error");
         }
 
     }
+
+    private ListGamesResult listGamesPage(ListGamesRequest request, AuthData auth) throws DataAccessException {
+        int limit = request.limit() == null ? DEFAULT_PAGE_SIZE : request.limit();
+        int after = request.after() == null ? 0 : request.after();
+        if (limit < 1 || limit > MAX_PAGE_SIZE || after < 0) {
+            throw new IllegalArgumentException();
+        }
+
+        Boolean gameOver = request.status() == null
+                ? null
+                : request.status() == ListGamesRequest.GameStatus.FINISHED;
+
+        // One extra tells whether there is another page
+        List<GameSummary> games = gameDAO.listGameSummaries(new GameQuery(
+                after,
+                limit + 1,
+                request.openSeats(),
+                request.mine() ? auth.username() : null,
+                gameOver,
+                request.namePrefix()
+        ));
+
+        Integer nextCursor = null;
+        if (games.size() > limit) {
+            games = games.subList(0, limit);
+            nextCursor = games.get(limit - 1).gameID();
+        }
+        return new ListGamesResult(toGameInfos(games), nextCursor);
+    }
+
+    private static List<GameInfo> toGameInfos(List<GameSummary> games) {
+        return games.stream()
+                .map(g -> new GameInfo(
+                        g.gameID(),
+                        g.whiteUsername(),
+                        g.blackUsername(),
+                        g.gameName()
+                ))
+                .toList();
+    }
     public CreateGameResult createGame(CreateGameRequest createGameRequest) {
         if (createGameRequest.authToken() == null || createGameRequest.gameName() == null) {
             throw new IllegalArgumentException();
@@ -109,36 +148,19 @@ public class GameService {
                 throw new UnauthorizedException("Invalid auth token");
             }
 
-            GameData oldGame = gameDAO.getGame(joinGameRequest.gameID());
-            GameData updatedGame;
-
+            ChessGame.TeamColor color;
             if (joinGameRequest.playerColor().equals("WHITE")) {
-                if (oldGame.whiteUsername() != null) {
-                    throw new AlreadyTakenException("White taken");
-                }
-                updatedGame = new GameData(
-                    oldGame.gameID(),
-                    authData.username(),
-                    oldGame.blackUsername(),
-                    oldGame.gameName(),
-                    oldGame.game()
-                );
+                color = ChessGame.TeamColor.WHITE;
             } else if (joinGameRequest.playerColor().equals("BLACK")) {
-                if (oldGame.blackUsername() != null) {
-                    throw new AlreadyTakenException("Black taken");
-                }
-                updatedGame = new GameData(
-                    oldGame.gameID(),
-                    oldGame.whiteUsername(),
-                    authData.username(),
-                    oldGame.gameName(),
-                    oldGame.game()
-                );
+                color = ChessGame.TeamColor.BLACK;
             } else {
                 throw new IllegalArgumentException();
             }
 
-            gameDAO.updateGame(joinGameRequest.gameID(), updatedGame);
+            // Only the seat is written, so moves played meanwhile are kept
+            if (!gameDAO.claimSeat(joinGameRequest.gameID(), color, authData.username())) {
+                throw new AlreadyTakenException(color == ChessGame.TeamColor.WHITE ? "White taken" : "Black taken");
+            }
 
         } catch (DataAccessException e) {
             throw new ServiceException("Server error");
@@ -0,0 +1,129 @@
+package http.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import http.service.exceptions.OverloadedException;
+import http.service.exceptions.ServiceException;
+
+/**
+ * Runs BCrypt on a small pool of its own instead of the request threads.
+ * <p>
+ * Hashing is deliberately slow, so a burst of logins would otherwise tie up every HTTP
+ * worker and stall cheap requests behind them. Here at most threads hashes run at once and
+ * queueCapacity more wait; past that a request fails straight away with
+ * {@link OverloadedException} rather than waiting. The caller still blocks while its own
+ * hash runs, so the number of request threads held is bounded by threads + queueCapacity.
+ */
+public class PasswordHasher implements AutoCloseable {
+
+    public static final int DEFAULT_COST = 10;
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    public static final int DEFAULT_QUEUE_CAPACITY = DEFAULT_THREADS * 4;
+
+    private final int cost;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public PasswordHasher() {
+        this(DEFAULT_COST, DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * @param cost the BCrypt log2 work factor for new hashes; existing hashes are checked
+     *             at whatever cost they were made with
+     */
+    public PasswordHasher(int cost, int threads, int queueCapacity) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31");
+        }
+        this.cost = cost;
+
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public String hash(String password) {
+        return run(() -> BCrypt.hashpw(password, BCrypt.gensalt(cost)));
+    }
+
+    public boolean check(String password, String hash) {
+        return run(() -> BCrypt.checkpw(password, hash));
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new OverloadedException("Too many logins in progress");
+        }
+
+        try {
+            T value = result.get();
+            completed.increment();
+            return value;
+        } catch (CancellationException e) {
+            throw new ServiceException("Server shutting down");
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IllegalArgumentException invalid) {
+                // BCrypt's answer to a malformed stored hash
+                throw invalid;
+            }
+            throw new ServiceException("Password hashing failed");
+        }
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * @return counters for the metrics endpoint
+     */
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cost", cost);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("completed", completed.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    /**
+     * Stops the pool. Callers still waiting in the queue are released with a ServiceException.
+     */
+    @Override
+    public void close() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((Future<?>) queued).cancel(false);
+        }
+    }
+}
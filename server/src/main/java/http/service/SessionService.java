@@ -1,9 +1,5 @@
 package http.service;
 
-import java.util.UUID;
-
-import org.mindrot.jbcrypt.BCrypt;
-
 import dataaccess.AuthDAO;
 import dataaccess.DataAccessException;
 import dataaccess.UserDAO;
@@ -21,10 +17,16 @@ import http.service.exceptions.UnauthorizedException;
 public class SessionService {
     private final UserDAO userDAO;
     private final AuthDAO authDAO;
+    private final PasswordHasher passwordHasher;
 
     public SessionService(UserDAO userDAO, AuthDAO authDAO) {
+        this(userDAO, authDAO, new PasswordHasher());
+    }
+
+    public SessionService(UserDAO userDAO, AuthDAO authDAO, PasswordHasher passwordHasher) {
         this.userDAO = userDAO;
         this.authDAO = authDAO;
+        this.passwordHasher = passwordHasher;
     }
 
     public LoginResult login(LoginRequest loginRequest) {
@@ -42,16 +44,14 @@ public class SessionService {
             }
 
             // Verify password
-            if (!BCrypt.checkpw(loginRequest.password(), user.password())) {
+            if (!passwordHasher.check(loginRequest.password(), user.password())) {
                 throw new UnauthorizedException("Incorrect password");
             }
 
             // Add authData
-            String authToken = UUID.randomUUID().toString();
-            AuthData authData = new AuthData(authToken, loginRequest.username());
-            authDAO.addAuth(authData);
+            AuthData authData = authDAO.createAuth(loginRequest.username());
 
-            return new LoginResult(loginRequest.username(), authToken);
+            return new LoginResult(loginRequest.username(), authData.authToken());
 
         } catch (DataAccessException e) {
             throw new ServiceException("Server error");
@@ -1,9 +1,5 @@
 package http.service;
 
-import java.util.UUID;
-
-import org.mindrot.jbcrypt.BCrypt;
-
 import dataaccess.AuthDAO;
 import dataaccess.DataAccessException;
 import dataaccess.UserDAO;
@@ -21,10 +17,16 @@ public class UserService {
 
     private final UserDAO userDAO;
     private final AuthDAO authDAO;
+    private final PasswordHasher passwordHasher;
 
     public UserService(UserDAO userDAO, AuthDAO authDAO) {
+        this(userDAO, authDAO, new PasswordHasher());
+    }
+
+    public UserService(UserDAO userDAO, AuthDAO authDAO, PasswordHasher passwordHasher) {
         this.userDAO = userDAO;
         this.authDAO = authDAO;
+        this.passwordHasher = passwordHasher;
     }
 
     public RegisterResult register(RegisterRequest registerRequest) {
@@ -43,7 +45,7 @@ public class UserService {
                 throw new AlreadyExistsException("Already exists");
             }
 
-            String hashedPassword = BCrypt.hashpw(registerRequest.password(), BCrypt.gensalt());
+            String hashedPassword = passwordHasher.hash(registerRequest.password());
 
             // Add userData
             UserData userData = new UserData(
@@ -54,14 +56,9 @@ public class UserService {
             userDAO.addUser(userData);
 
             // Add authData
-            String authToken = UUID.randomUUID().toString();
-            AuthData auth = new AuthData(
-                    authToken,
-                    registerRequest.username()
-            );
-            authDAO.addAuth(auth);
+            AuthData auth = authDAO.createAuth(registerRequest.username());
 
-            return new RegisterResult(registerRequest.username(), authToken);
+            return new RegisterResult(registerRequest.username(), auth.authToken());
 
         } catch (DataAccessException e) {
             throw new ServiceException("Server Error");
@@ -0,0 +1,7 @@
+package http.service.exceptions;
+
+public class OverloadedException extends RuntimeException {
+    public OverloadedException(String message) {
+        super(message);
+    }
+}
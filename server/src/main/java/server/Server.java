@@ -1,33 +1,48 @@
 package server;
 
+import java.util.Map;
+import java.util.function.Supplier;
+
 import dataaccess.DataAccessException;
 import io.javalin.Javalin;
 
 import dataaccess.AuthDAO;
-import dataaccess.GameDAO;
 import dataaccess.UserDAO;
+import dataaccess.cache.CachingAuthDAO;
+import dataaccess.cache.CachingGameDAO;
+import dataaccess.sql.DatabaseManager;
 import dataaccess.sql.SQLAuthDAO;
 import dataaccess.sql.SQLGameDAO;
 import dataaccess.sql.SQLUserDAO;
+import dataaccess.token.SignedTokenAuthDAO;
 import static dataaccess.sql.DatabaseManager.configureDatabase;
 import static dataaccess.sql.DatabaseManager.createDatabase;
 
 import http.handler.DBHandler;
 import http.handler.GameHandler;
+import http.handler.MetricsHandler;
 import http.handler.SessionHandler;
 import http.handler.UserHandler;
 
 import http.service.DBService;
 import http.service.GameService;
+import http.service.PasswordHasher;
 import http.service.SessionService;
 import http.service.UserService;
 import websocket.ConnectionManager;
+import websocket.GameCommandExecutor;
 import websocket.handler.GameplayHandler;
 import websocket.service.GameplayService;
 
 public class Server {
 
     private final Javalin javalin;
+    private final GameCommandExecutor commandExecutor = new GameCommandExecutor();
+    private final CachingGameDAO gameDAO;
+    private final PasswordHasher passwordHasher = new PasswordHasher(
+            Integer.getInteger("auth.bcrypt.cost", PasswordHasher.DEFAULT_COST),
+            Integer.getInteger("auth.bcrypt.threads", PasswordHasher.DEFAULT_THREADS),
+            Integer.getInteger("auth.bcrypt.queue", PasswordHasher.DEFAULT_QUEUE_CAPACITY));
 
     public Server() {
         javalin = Javalin.create(config -> config.staticFiles.add("web"));
@@ -41,8 +56,24 @@ public class Server {
 
         // DAO (SQL Implementation)
         UserDAO userDAO = new SQLUserDAO();
-        AuthDAO authDAO = new SQLAuthDAO();
-        GameDAO gameDAO = new SQLGameDAO();
+        // Token checks are answered from memory: with auth.tokens=signed from the token's own
+        // signature, otherwise from a cache in front of the auth_tokens table
+        AuthDAO authDAO;
+        String authMetrics;
+        Supplier<Map<String, Object>> authStats;
+        if ("signed".equals(System.getProperty("auth.tokens"))) {
+            SignedTokenAuthDAO signedTokens = SignedTokenAuthDAO.fromSystemProperties();
+            authDAO = signedTokens;
+            authMetrics = "signedTokens";
+            authStats = signedTokens::stats;
+        } else {
+            CachingAuthDAO cachedTokens = new CachingAuthDAO(new SQLAuthDAO());
+            authDAO = cachedTokens;
+            authMetrics = "authCache";
+            authStats = cachedTokens::stats;
+        }
+        // Games in play are served from memory and written back in the background
+        gameDAO = new CachingGameDAO(new SQLGameDAO());
 
         // DB endpoint
         DBService dbService = new DBService(userDAO, authDAO, gameDAO);
@@ -50,12 +81,12 @@ public class Server {
         javalin.delete("/db", dbHandler::clear);
 
         // User endpoints
-        UserService userService = new UserService(userDAO, authDAO);
+        UserService userService = new UserService(userDAO, authDAO, passwordHasher);
         UserHandler userHandler = new UserHandler(userService);
         javalin.post("/user", userHandler::register);
 
         // Session endpoints
-        SessionService sessionService = new SessionService(userDAO, authDAO);
+        SessionService sessionService = new SessionService(userDAO, authDAO, passwordHasher);
         SessionHandler sessionHandler = new SessionHandler(sessionService);
         javalin.post("/session", sessionHandler::login);
         javalin.delete("/session", sessionHandler::logout);
@@ -70,7 +101,7 @@ public class Server {
         // WebSocket endpoint
         GameplayService gameplayService = new GameplayService(authDAO, gameDAO);
         ConnectionManager connectionManager = new ConnectionManager();
-        GameplayHandler gameplayHandler = new GameplayHandler(gameplayService, connectionManager);
+        GameplayHandler gameplayHandler = new GameplayHandler(gameplayService, connectionManager, commandExecutor);
         javalin.ws("/ws", ws -> {
             ws.onConnect(ctx -> {
                 ctx.enableAutomaticPings();
@@ -80,6 +111,20 @@ public class Server {
             ws.onClose(ctx -> gameplayHandler.onClose(ctx));
         });
 
+        // Metrics endpoint
+        MetricsHandler metricsHandler = new MetricsHandler();
+        metricsHandler.register("gameplay", () -> Map.of(
+                "activeGames", commandExecutor.activeGameCount(),
+                "connectedGames", connectionManager.activeGameCount(),
+                "commandsExecuted", commandExecutor.executedCount(),
+                "commandsFailed", commandExecutor.failedCount(),
+                "queueDepths", commandExecutor.queueDepths()));
+        metricsHandler.register("gameCache", gameDAO::stats);
+        metricsHandler.register(authMetrics, authStats);
+        metricsHandler.register("connectionPool", DatabaseManager::poolStats);
+        metricsHandler.register("passwordHashing", passwordHasher::stats);
+        javalin.get("/metrics", metricsHandler::metrics);
+
     }
 
     public int run(int desiredPort) {
@@ -89,5 +134,14 @@ public class Server {
 
     public void stop() {
         javalin.stop();
+        commandExecutor.close();
+        passwordHasher.close();
+        try {
+            gameDAO.close();
+        } catch (DataAccessException e) {
+            throw new RuntimeException("Failed to write pending games on shutdown", e);
+        } finally {
+            DatabaseManager.closePool();
+        }
     }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package websocket;
 
 import com.google.gson.Gson;
 import io.javalin.websocket.WsContext;
+import serialization.Serializer;
 import websocket.messages.ServerMessage;
 
 import java.util.Map;
@@ -9,44 +10,80 @@ import java.util.concurrent.ConcurrentHashMap;
 
 public class ConnectionManager {
     private final Map<String, Connection> connections = new ConcurrentHashMap<>();
-    private final Gson gson = new Gson();
+
+    // Connections grouped by game, keyed by session ID, so a broadcast only visits that
+    // game's players and observers. Rooms are created and dropped inside compute() so an
+    // add racing the last remove cannot land in a room that is being thrown away.
+    private final Map<Integer, Map<String, Connection>> rooms = new ConcurrentHashMap<>();
+
+    private final Gson gson = Serializer.GSON;
 
     public void add(String sessionId, Connection connection) {
-        connections.put(sessionId, connection);
+        Connection previous = connections.put(sessionId, connection);
+        if (previous != null) {
+            leaveRoom(sessionId, previous);
+        }
+        rooms.compute(connection.getGameID(), (gameID, room) -> {
+            if (room == null) {
+                room = new ConcurrentHashMap<>();
+            }
+            room.put(sessionId, connection);
+            return room;
+        });
     }
 
     public void remove(String sessionId) {
-        connections.remove(sessionId);
+        Connection connection = connections.remove(sessionId);
+        if (connection != null) {
+            leaveRoom(sessionId, connection);
+        }
+    }
+
+    private void leaveRoom(String sessionId, Connection connection) {
+        rooms.computeIfPresent(connection.getGameID(), (gameID, room) -> {
+            room.remove(sessionId, connection);
+            return room.isEmpty() ? null : room;
+        });
     }
 
     public Connection get(String sessionId) {
         return connections.get(sessionId);
     }
 
+    /**
+     * @return the number of games with at least one connection
+     */
+    public int activeGameCount() {
+        return rooms.size();
+    }
+
     public void sendToOne(WsContext ctx, ServerMessage message) {
         ctx.send(gson.toJson(message));
     }
 
     public void broadcastToGame(int gameID, ServerMessage message) {
+        Map<String, Connection> room = rooms.get(gameID);
+        if (room == null) {
+            return;
+        }
         String json = gson.toJson(message);
 
-        for (Connection connection : connections.values()) {
-            if (connection.getGameID() == gameID) {
-                connection.getCtx().send(json);
-            }
+        for (Connection connection : room.values()) {
+            connection.getCtx().send(json);
         }
     }
 
     public void broadcastToGameExcept(int gameID, String excludedSessionId, ServerMessage message) {
+        Map<String, Connection> room = rooms.get(gameID);
+        if (room == null) {
+            return;
+        }
         String json = gson.toJson(message);
 
-        for (Map.Entry<String, Connection> entry : connections.entrySet()) {
-            String sessionId = entry.getKey();
-            Connection connection = entry.getValue();
-
-            if (connection.getGameID() == gameID && !sessionId.equals(excludedSessionId)) {
-                connection.getCtx().send(json);
+        for (Map.Entry<String, Connection> entry : room.entrySet()) {
+            if (!entry.getKey().equals(excludedSessionId)) {
+                entry.getValue().getCtx().send(json);
             }
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package websocket;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs websocket commands one game at a time, in the order they arrive, while different
+ * games run in parallel.
+ * <p>
+ * Each game with pending commands has a mailbox that at most one virtual thread drains.
+ * A mailbox is created on the first submit and dropped once it runs dry; both happen
+ * inside compute() on the mailbox map, so a submit either lands in a mailbox that is
+ * still being drained or starts a new one, and a command is never stranded.
+ */
+public class GameCommandExecutor implements AutoCloseable {
+
+    private static final class Mailbox {
+        private final int gameID;
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+        Mailbox(int gameID) {
+            this.gameID = gameID;
+        }
+    }
+
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Queues a command to run after every command already queued for the same game
+     */
+    public void submit(int gameID, Runnable command) {
+        mailboxes.compute(gameID, (id, mailbox) -> {
+            if (mailbox == null) {
+                Mailbox created = new Mailbox(id);
+                created.commands.add(command);
+                workers.execute(() -> drain(created));
+                return created;
+            }
+            mailbox.commands.add(command);
+            return mailbox;
+        });
+    }
+
+    private void drain(Mailbox mailbox) {
+        while (true) {
+            Runnable command = mailbox.commands.poll();
+            if (command == null) {
+                // Drop the mailbox unless a command arrived since the poll
+                Mailbox remaining = mailboxes.compute(mailbox.gameID,
+                        (id, current) -> mailbox.commands.isEmpty() ? null : current);
+                if (remaining == null) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                // Commands report their own errors to the client; one failing must not
+                // stop the rest of the game's queue
+                failed.increment();
+            }
+            executed.increment();
+        }
+    }
+
+    /**
+     * @return the number of commands waiting for each game that has any, not counting the
+     * one running
+     */
+    public Map<Integer, Integer> queueDepths() {
+        Map<Integer, Integer> depths = new HashMap<>();
+        for (Mailbox mailbox : mailboxes.values()) {
+            int depth = mailbox.commands.size();
+            if (depth > 0) {
+                depths.put(mailbox.gameID, depth);
+            }
+        }
+        return depths;
+    }
+
+    /**
+     * @return the number of games with a command queued or running
+     */
+    public int activeGameCount() {
+        return mailboxes.size();
+    }
+
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Stops taking new work and waits briefly for queued commands to finish
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(5, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,34 +4,68 @@ import com.google.gson.Gson;
 import io.javalin.websocket.WsContext;
 import model.AuthData;
 import model.GameData;
+import serialization.Serializer;
 import websocket.service.GameplayService;
 import websocket.Connection;
 import websocket.ConnectionManager;
+import websocket.GameCommandExecutor;
 import websocket.commands.*;
 import websocket.messages.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 public class GameplayHandler {
     private final GameplayService gameplayService;
     private final ConnectionManager connectionManager;
-    private final Gson gson = new Gson();
+    private final GameCommandExecutor commandExecutor;
+    private final Gson gson = Serializer.GSON;
 
-    public GameplayHandler(GameplayService gameplayService, ConnectionManager connectionManager) {
+    public GameplayHandler(GameplayService gameplayService, ConnectionManager connectionManager,
+                           GameCommandExecutor commandExecutor) {
         this.gameplayService = gameplayService;
         this.connectionManager = connectionManager;
+        this.commandExecutor = commandExecutor;
     }
 
     public void onConnect(WsContext ctx) {
     }
 
+    /**
+     * Decodes a command on the calling thread, then queues it behind any other commands for
+     * the same game, so each game's reads and writes happen one command at a time
+     */
     public void onMessage(WsContext ctx, String json) {
+        UserGameCommand command;
+        try {
+            // The shared adapter builds the concrete command type in one pass
+            command = gson.fromJson(json, UserGameCommand.class);
+            if (command == null) {
+                throw new IllegalArgumentException("empty command");
+            }
+        } catch (Exception e) {
+            connectionManager.sendToOne(ctx, new ErrorMessage("Error: " + e.getMessage()));
+            return;
+        }
+
+        if (command.getGameID() == null) {
+            // Fails validation without touching any game, so there is nothing to order
+            dispatch(ctx, command);
+            return;
+        }
         try {
-            UserGameCommand base = gson.fromJson(json, UserGameCommand.class);
+            commandExecutor.submit(command.getGameID(), () -> dispatch(ctx, command));
+        } catch (RejectedExecutionException e) {
+            connectionManager.sendToOne(ctx, new ErrorMessage("Error: server is shutting down"));
+        }
+    }
 
-            switch (base.getCommandType()) {
-                case CONNECT -> handleConnect(ctx, gson.fromJson(json, ConnectCommand.class));
-                case MAKE_MOVE -> handleMakeMove(ctx, gson.fromJson(json, MakeMoveCommand.class));
-                case LEAVE -> handleLeave(ctx, gson.fromJson(json, LeaveCommand.class));
-                case RESIGN -> handleResign(ctx, gson.fromJson(json, ResignCommand.class));
+    private void dispatch(WsContext ctx, UserGameCommand command) {
+        try {
+            switch (command.getCommandType()) {
+                case CONNECT -> handleConnect(ctx, (ConnectCommand) command);
+                case MAKE_MOVE -> handleMakeMove(ctx, (MakeMoveCommand) command);
+                case LEAVE -> handleLeave(ctx, (LeaveCommand) command);
+                case RESIGN -> handleResign(ctx, (ResignCommand) command);
             }
         } catch (Exception e) {
             connectionManager.sendToOne(ctx, new ErrorMessage("Error: " + e.getMessage()));
@@ -72,8 +106,6 @@ public class GameplayHandler {
                 cmd.getMove()
         );
 
-        AuthData authData = gameplayService.getAuth(cmd.getAuthToken());
-
         connectionManager.broadcastToGame(
                 cmd.getGameID(),
                 new LoadGameMessage(result.gameData().game())
@@ -82,7 +114,7 @@ public class GameplayHandler {
         connectionManager.broadcastToGameExcept(
                 cmd.getGameID(),
                 ctx.sessionId(),
-                new NotificationMessage(authData.username() + " moved " + cmd.getMove())
+                new NotificationMessage(result.username() + " moved " + cmd.getMove())
         );
 
         if (result.checkmate()) {
@@ -95,6 +127,16 @@ public class GameplayHandler {
                     cmd.getGameID(),
                     new NotificationMessage("stalemate")
             );
+        } else if (result.threefoldRepetition()) {
+            connectionManager.broadcastToGame(
+                    cmd.getGameID(),
+                    new NotificationMessage("draw by threefold repetition")
+            );
+        } else if (result.fiftyMoveRule()) {
+            connectionManager.broadcastToGame(
+                    cmd.getGameID(),
+                    new NotificationMessage("draw by fifty-move rule")
+            );
         }
     }
 
@@ -1,5 +1,7 @@
 package websocket.service;
 
+import java.util.List;
+
 import chess.ChessGame;
 import chess.ChessMove;
 import chess.InvalidMoveException;
@@ -20,7 +22,11 @@ public class GameplayService {
         this.gameDAO = gameDAO;
     }
 
-    public record MoveResult(GameData gameData, boolean checkmate, boolean stalemate) {
+    /**
+     * @param username the player who moved
+     */
+    public record MoveResult(GameData gameData, String username, boolean checkmate, boolean stalemate,
+                             boolean threefoldRepetition, boolean fiftyMoveRule) {
     }
 
     public AuthData getAuth(String authToken) {
@@ -53,9 +59,11 @@ public class GameplayService {
 
         ChessGame.TeamColor nextTurn = game.getTeamTurn();
         boolean checkmate = game.isInCheckmate(nextTurn);
-        boolean stalemate = game.isInStalemate(nextTurn);
+        boolean stalemate = !checkmate && game.isInStalemate(nextTurn);
+        boolean threefoldRepetition = !checkmate && !stalemate && game.isThreefoldRepetition();
+        boolean fiftyMoveRule = !checkmate && !stalemate && !threefoldRepetition && game.isFiftyMoveRule();
 
-        if (checkmate || stalemate) {
+        if (checkmate || stalemate || threefoldRepetition || fiftyMoveRule) {
             game.setGameOver(true);
         }
 
@@ -68,12 +76,12 @@ public class GameplayService {
         );
 
         try {
-            gameDAO.updateGame(gameID, updatedGame);
+            gameDAO.recordMoves(gameID, List.of(move), updatedGame);
         } catch (DataAccessException e) {
             throw new ServiceException("Server error");
         }
 
-        return new MoveResult(updatedGame, checkmate, stalemate);
+        return new MoveResult(updatedGame, auth.username(), checkmate, stalemate, threefoldRepetition, fiftyMoveRule);
     }
 
     public void leave(String authToken, int gameID) {
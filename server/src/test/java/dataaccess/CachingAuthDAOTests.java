@@ -0,0 +1,147 @@
+package dataaccess;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import dataaccess.cache.CachingAuthDAO;
+import dataaccess.memory.MemoryAuthDAO;
+import model.AuthData;
+
+public class CachingAuthDAOTests {
+
+    private static class CountingAuthDAO extends MemoryAuthDAO {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public AuthData getAuth(String authToken) throws DataAccessException {
+            reads.incrementAndGet();
+            return super.getAuth(authToken);
+        }
+    }
+
+    private CountingAuthDAO store;
+    private CachingAuthDAO cache;
+
+    @BeforeEach
+    public void setup() throws DataAccessException {
+        store = new CountingAuthDAO();
+        store.addAuth(new AuthData("token", "user"));
+        cache = new CachingAuthDAO(store, Duration.ofMinutes(5), Duration.ofMinutes(5), 100);
+    }
+
+    @Test
+    @DisplayName("getAuth() Positive [only the first lookup reaches the store]")
+    public void validTokensAreCached() throws DataAccessException {
+        for (int i = 0; i < 10; i++) {
+            assertEquals("user", cache.getAuth("token").username());
+        }
+
+        assertEquals(1, store.reads.get());
+        assertEquals(9L, cache.stats().get("hits"));
+    }
+
+    @Test
+    @DisplayName("getAuth() Negative [unknown tokens are cached too]")
+    public void unknownTokensAreCached() throws DataAccessException {
+        assertNull(cache.getAuth("bad"));
+        assertNull(cache.getAuth("bad"));
+
+        assertEquals(1, store.reads.get());
+        assertEquals(1L, cache.stats().get("negativeHits"));
+    }
+
+    @Test
+    @DisplayName("addAuth() Positive [a new token replaces a cached miss]")
+    public void addReplacesMiss() throws DataAccessException {
+        assertNull(cache.getAuth("new"));
+        cache.addAuth(new AuthData("new", "user"));
+
+        assertEquals("user", cache.getAuth("new").username());
+        assertEquals(1, store.reads.get());
+    }
+
+    @Test
+    @DisplayName("deleteAuth() Positive [a deleted token is rejected at once]")
+    public void deleteInvalidates() throws DataAccessException {
+        cache.getAuth("token");
+        cache.deleteAuth("token");
+
+        assertNull(cache.getAuth("token"));
+    }
+
+    @Test
+    @DisplayName("clear() Positive")
+    public void clearInvalidates() throws DataAccessException {
+        cache.getAuth("token");
+        cache.clear();
+
+        assertNull(cache.getAuth("token"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    @DisplayName("getAuth() Positive [entries expire]")
+    public void entriesExpire() throws Exception {
+        cache = new CachingAuthDAO(store, Duration.ofMillis(20), Duration.ofMillis(20), 100);
+
+        cache.getAuth("token");
+        Thread.sleep(50);
+        cache.getAuth("token");
+
+        assertEquals(2, store.reads.get());
+    }
+
+    @Test
+    @DisplayName("getAuth() Positive [the cache stays within its limit]")
+    public void sizeIsBounded() throws DataAccessException {
+        cache = new CachingAuthDAO(store, Duration.ofMinutes(5), Duration.ofMinutes(5), 10);
+
+        cache.getAuth("token");
+        for (int i = 0; i < 50; i++) {
+            cache.getAuth("bad" + i);
+        }
+
+        assertTrue(cache.size() <= 10);
+        assertEquals("user", cache.getAuth("token").username());
+    }
+
+    @Test
+    @DisplayName("getAuth() Positive [unknown tokens never push out valid ones]")
+    public void unknownTokensKeptApart() throws DataAccessException {
+        cache = new CachingAuthDAO(store, Duration.ofMinutes(5), Duration.ofMinutes(5), 8);
+        cache.getAuth("token");
+
+        for (int i = 0; i < 1000; i++) {
+            cache.getAuth("bad" + i);
+        }
+        int reads = store.reads.get();
+
+        assertEquals("user", cache.getAuth("token").username());
+        assertEquals(reads, store.reads.get());
+    }
+
+    @Test
+    @DisplayName("addAuth() Positive [the least recently used token is evicted]")
+    public void leastRecentlyUsedEvicted() throws DataAccessException {
+        // Room for 6 valid tokens and 2 unknown ones
+        cache = new CachingAuthDAO(store, Duration.ofMinutes(5), Duration.ofMinutes(5), 8);
+        for (int i = 0; i < 6; i++) {
+            cache.addAuth(new AuthData("token" + i, "user"));
+        }
+
+        cache.getAuth("token0");
+        cache.addAuth(new AuthData("token6", "user"));
+        int reads = store.reads.get();
+
+        cache.getAuth("token0");
+        assertEquals(reads, store.reads.get());
+        cache.getAuth("token1");
+        assertEquals(reads + 1, store.reads.get());
+        assertTrue((long) cache.stats().get("evictions") >= 1);
+    }
+}
@@ -0,0 +1,266 @@
+package dataaccess;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import dataaccess.cache.CachingGameDAO;
+import dataaccess.memory.MemoryGameDAO;
+import model.GameData;
+import model.GameQuery;
+import model.GameSummary;
+
+public class CachingGameDAOTests {
+
+    /**
+     * Memory DAO that counts calls; synchronized since the cache writes from its own thread
+     */
+    private static class CountingGameDAO extends MemoryGameDAO {
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger writes = new AtomicInteger();
+        private final List<List<ChessMove>> recorded = new ArrayList<>();
+
+        @Override
+        public synchronized GameData getGame(int gameID) throws DataAccessException {
+            reads.incrementAndGet();
+            return super.getGame(gameID);
+        }
+
+        @Override
+        public synchronized void updateGame(int gameID, GameData gameData) throws DataAccessException {
+            writes.incrementAndGet();
+            super.updateGame(gameID, gameData);
+        }
+
+        @Override
+        public synchronized void recordMoves(int gameID, List<ChessMove> moves, GameData gameData)
+                throws DataAccessException {
+            recorded.add(List.copyOf(moves));
+            super.recordMoves(gameID, moves, gameData);
+        }
+
+        @Override
+        public synchronized List<GameData> listGames() throws DataAccessException {
+            return super.listGames();
+        }
+    }
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private CountingGameDAO store;
+    private CachingGameDAO cache;
+
+    @BeforeEach
+    public void setup() throws DataAccessException {
+        store = new CountingGameDAO();
+        store.createGame(new GameData(1, "white", "black", "game", new ChessGame()));
+        cache = new CachingGameDAO(store, NEVER, NEVER, 100);
+    }
+
+    @AfterEach
+    public void tearDown() throws DataAccessException {
+        cache.close();
+    }
+
+    @Test
+    @DisplayName("getGame() Positive [only the first read reaches the store]")
+    public void readsAreCached() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(cache.getGame(1));
+        }
+
+        assertEquals(1, store.reads.get());
+        assertNull(cache.getGame(2));
+    }
+
+    @Test
+    @DisplayName("getGame() Positive [callers get copies]")
+    public void readsAreCopies() throws Exception {
+        GameData game = cache.getGame(1);
+        game.game().makeMove(move(2, 5, 4, 5));
+
+        assertEquals(ChessGame.TeamColor.WHITE, cache.getGame(1).game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("updateGame() Positive [updates are coalesced into one write]")
+    public void updatesAreCoalesced() throws Exception {
+        GameData game = cache.getGame(1);
+        game.game().makeMove(move(2, 5, 4, 5));
+        cache.updateGame(1, game);
+        game.game().makeMove(move(7, 5, 5, 5));
+        cache.updateGame(1, game);
+
+        assertEquals(0, store.writes.get());
+        assertEquals(ChessGame.TeamColor.WHITE, cache.getGame(1).game().getTeamTurn());
+
+        cache.flush();
+        cache.flush();
+
+        assertEquals(1, store.writes.get());
+        assertEquals(2, store.getGame(1).game().getFullmoveNumber());
+        assertNotNull(store.getGame(1).game().getBoard().getPiece(new ChessPosition(5, 5)));
+    }
+
+    @Test
+    @DisplayName("recordMoves() Positive [moves between flushes go out as one batch]")
+    public void movesAreBatched() throws Exception {
+        ChessMove first = move(2, 5, 4, 5);
+        ChessMove second = move(7, 5, 5, 5);
+
+        GameData game = cache.getGame(1);
+        game.game().makeMove(first);
+        cache.recordMoves(1, List.of(first), game);
+        game.game().makeMove(second);
+        cache.recordMoves(1, List.of(second), game);
+        cache.flush();
+
+        assertEquals(List.of(List.of(first, second)), store.recorded);
+        assertEquals(1, store.writes.get());
+        assertEquals(2, store.getGame(1).game().getFullmoveNumber());
+    }
+
+    @Test
+    @DisplayName("recordMoves() Positive [a move and a seat change both reach the store]")
+    public void movesAndUpdatesAreBothWritten() throws Exception {
+        ChessMove first = move(2, 5, 4, 5);
+
+        GameData game = cache.getGame(1);
+        game.game().makeMove(first);
+        cache.recordMoves(1, List.of(first), game);
+        cache.updateGame(1, new GameData(1, "white", null, "game", game.game()));
+        cache.flush();
+
+        assertEquals(List.of(List.of(first)), store.recorded);
+        assertNull(store.getGame(1).blackUsername());
+        assertEquals(ChessGame.TeamColor.BLACK, store.getGame(1).game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("claimSeat() Positive [a join keeps moves not yet written]")
+    public void claimSeatKeepsPendingMoves() throws Exception {
+        store.createGame(new GameData(2, "white", null, "open", new ChessGame()));
+        ChessMove first = move(2, 5, 4, 5);
+
+        GameData game = cache.getGame(2);
+        game.game().makeMove(first);
+        cache.recordMoves(2, List.of(first), game);
+
+        assertTrue(cache.claimSeat(2, ChessGame.TeamColor.BLACK, "black"));
+        assertFalse(cache.claimSeat(2, ChessGame.TeamColor.BLACK, "late"));
+        cache.flush();
+
+        GameData stored = store.getGame(2);
+        assertEquals(List.of(List.of(first)), store.recorded);
+        assertEquals("black", stored.blackUsername());
+        assertEquals(ChessGame.TeamColor.BLACK, stored.game().getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("claimSeat() Negative [no such game]")
+    public void claimSeatMissingGame() {
+        assertThrows(DataAccessException.class, () -> cache.claimSeat(2, ChessGame.TeamColor.WHITE, "white"));
+    }
+
+    @Test
+    @DisplayName("updateGame() Positive [a finished game is written through]")
+    public void gameOverIsWrittenThrough() throws Exception {
+        GameData game = cache.getGame(1);
+        game.game().setGameOver(true);
+        cache.updateGame(1, game);
+
+        assertEquals(1, store.writes.get());
+        assertTrue(store.getGame(1).game().isGameOver());
+    }
+
+    @Test
+    @DisplayName("listGames() Positive [shows updates not yet written]")
+    public void listSeesPendingUpdates() throws Exception {
+        GameData game = cache.getGame(1);
+        cache.updateGame(1, new GameData(1, null, "black", "game", game.game()));
+
+        GameData listed = cache.listGames().get(0);
+        assertNull(listed.whiteUsername());
+        assertEquals("white", store.getGame(1).whiteUsername());
+    }
+
+    @Test
+    @DisplayName("listGameSummaries() Positive [shows seat changes not yet written]")
+    public void summariesSeePendingUpdates() throws Exception {
+        GameData game = cache.getGame(1);
+        cache.updateGame(1, new GameData(1, "white", null, "game", game.game()));
+
+        assertEquals(List.of(new GameSummary(1, "white", null, "game")), cache.listGameSummaries());
+    }
+
+    @Test
+    @DisplayName("listGameSummaries() Positive [a page stays full when cached changes drop games]")
+    public void pageRefilledAfterDroppedGames() throws Exception {
+        for (int gameID = 2; gameID <= 5; gameID++) {
+            store.createGame(new GameData(gameID, null, null, "open", new ChessGame()));
+        }
+
+        // Both seats taken in the cache only, so the store still lists these as open
+        for (int gameID = 2; gameID <= 3; gameID++) {
+            cache.updateGame(gameID, new GameData(gameID, "white", "black", "open", new ChessGame()));
+        }
+
+        List<GameSummary> page = cache.listGameSummaries(new GameQuery(0, 2, true, null, null, null));
+
+        assertEquals(List.of(4, 5), page.stream().map(GameSummary::gameID).toList());
+    }
+
+    @Test
+    @DisplayName("close() Positive [pending updates are written]")
+    public void closeFlushes() throws Exception {
+        GameData game = cache.getGame(1);
+        cache.updateGame(1, new GameData(1, "white", null, "game", game.game()));
+
+        cache.close();
+
+        assertEquals(1, store.writes.get());
+        assertNull(store.getGame(1).blackUsername());
+    }
+
+    @Test
+    @DisplayName("eviction Positive [idle games are written and dropped]")
+    public void idleGamesAreEvicted() throws Exception {
+        cache.close();
+        cache = new CachingGameDAO(store, Duration.ofMillis(10), Duration.ofMillis(20), 100);
+
+        GameData game = cache.getGame(1);
+        cache.updateGame(1, new GameData(1, "white", null, "game", game.game()));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (cache.cachedGameCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(0, cache.cachedGameCount());
+        assertNull(store.getGame(1).blackUsername());
+    }
+
+    @Test
+    @DisplayName("clear() Positive")
+    public void clearDropsCache() throws Exception {
+        cache.getGame(1);
+        cache.clear();
+
+        assertEquals(0, cache.cachedGameCount());
+        assertNull(cache.getGame(1));
+    }
+
+    private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+        return new ChessMove(new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+    }
+}
@@ -0,0 +1,205 @@
+package dataaccess;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import dataaccess.sql.ConnectionPool;
+
+public class ConnectionPoolTests {
+
+    /**
+     * Stands in for a driver connection, tracking only what the pool looks at
+     */
+    private static class FakeConnection {
+        private boolean closed;
+        private boolean valid = true;
+        private boolean autoCommit = true;
+        private boolean rolledBack;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed;
+                        case "isValid" -> valid && !closed;
+                        case "getAutoCommit" -> autoCommit;
+                        case "setAutoCommit" -> {
+                            autoCommit = (Boolean) args[0];
+                            yield null;
+                        }
+                        case "rollback" -> {
+                            rolledBack = true;
+                            yield null;
+                        }
+                        case "getCatalog" -> "chess";
+                        default -> null;
+                    });
+        }
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+    private ConnectionPool pool;
+
+    private ConnectionPool pool(int maxSize, Duration idleTimeout, Duration validationInterval) {
+        pool = new ConnectionPool(() -> {
+            FakeConnection connection = new FakeConnection();
+            opened.add(connection);
+            return connection.proxy();
+        }, new ConnectionPool.Settings(maxSize, Duration.ofMillis(200), idleTimeout, validationInterval, Duration.ZERO));
+        return pool;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("getConnection() Positive [closed connections are reused]")
+    public void connectionsAreReused() throws SQLException {
+        pool(2, Duration.ofMinutes(10), Duration.ofMinutes(10));
+
+        for (int i = 0; i < 5; i++) {
+            try (Connection conn = pool.getConnection()) {
+                assertEquals("chess", conn.getCatalog());
+            }
+        }
+
+        assertEquals(1, opened.size());
+        assertFalse(opened.get(0).closed);
+        assertEquals(5L, pool.stats().get("borrows"));
+    }
+
+    @Test
+    @DisplayName("getConnection() Negative [waits, then times out when all are borrowed]")
+    public void exhaustedPoolTimesOut() throws SQLException {
+        pool(1, Duration.ofMinutes(10), Duration.ofMinutes(10));
+
+        try (Connection held = pool.getConnection()) {
+            assertNotNull(held);
+            assertThrows(SQLException.class, () -> pool.getConnection());
+        }
+
+        assertEquals(1L, pool.stats().get("timeouts"));
+        assertNotNull(pool.getConnection());
+    }
+
+    @Test
+    @DisplayName("close() Positive [a returned connection can't be used]")
+    public void returnedConnectionIsUnusable() throws SQLException {
+        pool(1, Duration.ofMinutes(10), Duration.ofMinutes(10));
+
+        Connection conn = pool.getConnection();
+        conn.close();
+        conn.close();
+
+        assertTrue(conn.isClosed());
+        assertThrows(SQLException.class, conn::getCatalog);
+        assertEquals(1, pool.stats().get("idle"));
+    }
+
+    @Test
+    @DisplayName("close() Positive [racing closes give the connection back once]")
+    public void concurrentCloseReturnsOnce() throws Exception {
+        pool(1, Duration.ofMinutes(10), Duration.ofMinutes(10));
+
+        Connection conn = pool.getConnection();
+        List<Thread> closers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            closers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (Thread closer : closers) {
+            closer.join();
+        }
+
+        assertEquals(1, pool.stats().get("idle"));
+        try (Connection held = pool.getConnection()) {
+            assertNotNull(held);
+            assertThrows(SQLException.class, () -> pool.getConnection());
+        }
+    }
+
+    @Test
+    @DisplayName("close() Positive [an open transaction is rolled back]")
+    public void openTransactionIsRolledBack() throws SQLException {
+        pool(1, Duration.ofMinutes(10), Duration.ofMinutes(10));
+
+        try (Connection conn = pool.getConnection()) {
+            conn.setAutoCommit(false);
+        }
+
+        assertTrue(opened.get(0).rolledBack);
+        assertTrue(opened.get(0).autoCommit);
+    }
+
+    @Test
+    @DisplayName("getConnection() Positive [invalid idle connections are replaced]")
+    public void invalidConnectionsAreReplaced() throws SQLException {
+        pool(1, Duration.ofMinutes(10), Duration.ZERO);
+
+        pool.getConnection().close();
+        opened.get(0).valid = false;
+        pool.getConnection().close();
+
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).closed);
+        assertEquals(1L, pool.stats().get("validationFailures"));
+    }
+
+    @Test
+    @DisplayName("eviction Positive [idle connections are closed]")
+    public void idleConnectionsAreClosed() throws Exception {
+        pool(1, Duration.ofMillis(50), Duration.ofMinutes(10));
+
+        pool.getConnection().close();
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!opened.get(0).closed && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertTrue(opened.get(0).closed);
+        assertEquals(0, pool.stats().get("open"));
+    }
+
+    @Test
+    @DisplayName("leak detection Positive [counted without capturing stacks]")
+    public void leaksCountedWithoutStacks() throws Exception {
+        pool = new ConnectionPool(() -> {
+            FakeConnection connection = new FakeConnection();
+            opened.add(connection);
+            return connection.proxy();
+        }, new ConnectionPool.Settings(1, Duration.ofMillis(200), Duration.ofMinutes(10), Duration.ofMinutes(10),
+                Duration.ofMillis(20)));
+
+        try (Connection held = pool.getConnection()) {
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while ((long) pool.stats().get("leaks") == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(held);
+        }
+
+        assertEquals(1L, pool.stats().get("leaks"));
+    }
+}
@@ -2,10 +2,16 @@ package dataaccess;
 
 import org.junit.jupiter.api.*;
 
+import java.util.List;
+
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import dataaccess.sql.DatabaseManager;
 import dataaccess.sql.SQLGameDAO;
 import model.GameData;
+import model.GameSummary;
 
 public class SQLGameDAOTests {
 
@@ -75,6 +81,78 @@ public class SQLGameDAOTests {
         Assertions.assertEquals(0, gameDAO.listGames().size());
     }
 
+    @Test
+    @DisplayName("listGameSummaries() Positive")
+    void listGameSummariesPositive() throws DataAccessException {
+        int id = gameDAO.createGame(new GameData(0, null, null, "Game1", new ChessGame()));
+
+        List<GameSummary> summaries = gameDAO.listGameSummaries();
+
+        Assertions.assertEquals(List.of(new GameSummary(id, null, null, "Game1")), summaries);
+    }
+
+    @Test
+    @DisplayName("listGameSummaries() Negative [no games in database]")
+    void listGameSummariesNegative() throws DataAccessException {
+        Assertions.assertTrue(gameDAO.listGameSummaries().isEmpty());
+    }
+
+    @Test
+    @DisplayName("recordMoves() Positive [loading replays moves after the snapshot]")
+    void recordMovesPositive() throws DataAccessException, InvalidMoveException {
+        SQLGameDAO dao = new SQLGameDAO(3);
+        ChessGame game = new ChessGame();
+        int id = dao.createGame(new GameData(0, null, null, "Game", game));
+
+        ChessMove[] moves = {
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null),
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null),
+        };
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+            dao.recordMoves(id, List.of(move), new GameData(id, null, null, "Game", game));
+        }
+
+        Assertions.assertEquals(game, dao.getGame(id).game());
+        Assertions.assertEquals(game, dao.listGames().get(0).game());
+    }
+
+    @Test
+    @DisplayName("getGame() Positive [repetitions before the snapshot still count]")
+    void repetitionAcrossSnapshot() throws DataAccessException, InvalidMoveException {
+        SQLGameDAO dao = new SQLGameDAO(3);
+        ChessGame game = new ChessGame();
+        int id = dao.createGame(new GameData(0, null, null, "Game", game));
+
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null),
+        };
+        for (int i = 0; i < 7; i++) {
+            game.makeMove(shuffle[i % 4]);
+            dao.recordMoves(id, List.of(shuffle[i % 4]), new GameData(id, null, null, "Game", game));
+        }
+
+        ChessGame loaded = dao.getGame(id).game();
+        loaded.makeMove(shuffle[3]);
+        Assertions.assertTrue(loaded.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("recordMoves() Negative [game does not exist]")
+    void recordMovesNegative() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        game.makeMove(move);
+
+        Assertions.assertThrows(DataAccessException.class, () ->
+                gameDAO.recordMoves(999, List.of(move), new GameData(999, null, null, "Game", game)));
+    }
+
     @Test
     @DisplayName("clear() Positive")
     void clearPositive() throws DataAccessException {
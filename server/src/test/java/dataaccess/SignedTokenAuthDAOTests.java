@@ -0,0 +1,165 @@
+package dataaccess;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import dataaccess.token.SignedTokenAuthDAO;
+import model.AuthData;
+
+public class SignedTokenAuthDAOTests {
+
+    private static final byte[] KEY = key(1);
+    private static final byte[] OTHER_KEY = key(2);
+
+    private SignedTokenAuthDAO dao;
+
+    private static byte[] key(int fill) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) fill);
+        return key;
+    }
+
+    @BeforeEach
+    public void setup() {
+        dao = new SignedTokenAuthDAO(Map.of("k1", KEY), "k1", Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("createAuth() Positive [the token names its user]")
+    public void issuedTokenVerifies() throws DataAccessException {
+        AuthData issued = dao.createAuth("user.name");
+
+        assertNotEquals(issued.authToken(), dao.createAuth("user.name").authToken());
+        assertEquals("user.name", dao.getAuth(issued.authToken()).username());
+    }
+
+    @Test
+    @DisplayName("getAuth() Positive [another node with the key accepts it]")
+    public void otherNodeVerifies() throws DataAccessException {
+        String token = dao.createAuth("user").authToken();
+        SignedTokenAuthDAO otherNode = new SignedTokenAuthDAO(Map.of("k1", KEY), "k1", Duration.ofHours(1));
+
+        assertEquals("user", otherNode.getAuth(token).username());
+    }
+
+    @Test
+    @DisplayName("getAuth() Negative [tampered tokens are rejected]")
+    public void tamperedTokenRejected() throws DataAccessException {
+        String token = dao.createAuth("user").authToken();
+        String[] parts = token.split("\\.");
+        parts[1] = "YWRtaW4";  // "admin"
+
+        assertNull(dao.getAuth(String.join(".", parts)));
+        assertNull(dao.getAuth("not-a-token"));
+        assertNull(dao.getAuth(token + "x"));
+        assertEquals(3L, dao.stats().get("rejected"));
+    }
+
+    @Test
+    @DisplayName("getAuth() Negative [a token signed with another key is rejected]")
+    public void wrongKeyRejected() throws DataAccessException {
+        SignedTokenAuthDAO forger = new SignedTokenAuthDAO(Map.of("k1", OTHER_KEY), "k1", Duration.ofHours(1));
+
+        assertNull(dao.getAuth(forger.createAuth("user").authToken()));
+    }
+
+    @Test
+    @DisplayName("getAuth() Positive [old keys still verify after rotation]")
+    public void rotatedKeysVerify() throws DataAccessException {
+        String oldToken = dao.createAuth("user").authToken();
+        SignedTokenAuthDAO rotated = new SignedTokenAuthDAO(Map.of("k2", OTHER_KEY, "k1", KEY), "k2",
+                Duration.ofHours(1));
+
+        assertTrue(rotated.createAuth("user").authToken().startsWith("k2."));
+        assertEquals("user", rotated.getAuth(oldToken).username());
+    }
+
+    @Test
+    @DisplayName("getAuth() Negative [tokens expire]")
+    public void expiredTokenRejected() throws Exception {
+        dao = new SignedTokenAuthDAO(Map.of("k1", KEY), "k1", Duration.ofMillis(20));
+        String token = dao.createAuth("user").authToken();
+
+        Thread.sleep(50);
+
+        assertNull(dao.getAuth(token));
+    }
+
+    @Test
+    @DisplayName("deleteAuth() Positive [only the logged out token is revoked]")
+    public void deleteRevokes() throws DataAccessException {
+        String first = dao.createAuth("user").authToken();
+        String second = dao.createAuth("user").authToken();
+
+        dao.deleteAuth(first);
+
+        assertNull(dao.getAuth(first));
+        assertNotNull(dao.getAuth(second));
+        assertEquals(1, dao.stats().get("revoked"));
+    }
+
+    @Test
+    @DisplayName("deleteAuth() Positive [expired revocations are pruned as the set grows]")
+    public void expiredRevocationsPruned() throws Exception {
+        dao = new SignedTokenAuthDAO(Map.of("k1", KEY), "k1", Duration.ofSeconds(1));
+        for (int i = 0; i < 1000; i++) {
+            dao.deleteAuth(dao.createAuth("user").authToken());
+        }
+        assertEquals(1000, dao.stats().get("revoked"));
+
+        Thread.sleep(1100);
+        String last = null;
+        for (int i = 0; i < 100; i++) {
+            last = dao.createAuth("user").authToken();
+            dao.deleteAuth(last);
+        }
+
+        assertTrue((Integer) dao.stats().get("revoked") <= 100);
+        assertNull(dao.getAuth(last));
+    }
+
+    @Test
+    @DisplayName("clear() Positive [tokens issued before are revoked]")
+    public void clearRevokesAll() throws DataAccessException {
+        String before = dao.createAuth("user").authToken();
+
+        dao.clear();
+        String after = dao.createAuth("user").authToken();
+
+        assertNull(dao.getAuth(before));
+        assertNotNull(dao.getAuth(after));
+    }
+
+    @Test
+    @DisplayName("clear() Positive [a token from just before the clear is revoked]")
+    public void clearRevokesSameMillisecond() throws DataAccessException {
+        // Many of these land in the same millisecond as the clear that follows
+        for (int i = 0; i < 1000; i++) {
+            String token = dao.createAuth("user").authToken();
+            dao.clear();
+            assertNull(dao.getAuth(token));
+        }
+    }
+
+    @Test
+    @DisplayName("clear() Positive [a node started in a later epoch rejects older tokens]")
+    public void laterEpochRejects() throws DataAccessException {
+        String token = dao.createAuth("user").authToken();
+        SignedTokenAuthDAO restarted = new SignedTokenAuthDAO(Map.of("k1", KEY), "k1", Duration.ofHours(1), 1);
+
+        assertNull(restarted.getAuth(token));
+        assertNotNull(restarted.getAuth(restarted.createAuth("user").authToken()));
+    }
+
+    @Test
+    @DisplayName("addAuth() Negative [tokens can only be issued]")
+    public void addRejected() {
+        assertThrows(DataAccessException.class, () -> dao.addAuth(new AuthData("token", "user")));
+    }
+}
@@ -3,14 +3,17 @@ package service;
 import java.util.List;
 
 import http.service.GameService;
+import http.service.exceptions.AlreadyTakenException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
 
+import chess.ChessGame;
 import dataaccess.memory.MemoryGameDAO;
 import dataaccess.memory.MemoryAuthDAO;
 import dto.game.CreateGameRequest;
+import dto.game.GameInfo;
 import dto.game.JoinGameRequest;
 import dto.game.ListGamesRequest;
 import dto.game.ListGamesResult;
@@ -90,6 +93,64 @@ public class GameServiceTests {
         );
     }
 
+    @Test
+    @DisplayName("listGames() Positive [Pages follow the cursor]")
+    public void listGamesPaged() throws Exception {
+        for (int id = 1; id <= 5; id++) {
+            gameDAO.createGame(new GameData(id, null, null, "Game" + id, new ChessGame()));
+        }
+
+        ListGamesResult first = service.listGames(
+                new ListGamesRequest("validToken", null, 2, false, false, null, null));
+        ListGamesResult last = service.listGames(
+                new ListGamesRequest("validToken", 4, 2, false, false, null, null));
+
+        assertEquals(List.of(1, 2), first.games().stream().map(GameInfo::gameID).toList());
+        assertEquals(2, first.nextCursor());
+        assertEquals(List.of(5), last.games().stream().map(GameInfo::gameID).toList());
+        assertNull(last.nextCursor());
+    }
+
+    @Test
+    @DisplayName("listGames() Positive [Filters]")
+    public void listGamesFiltered() throws Exception {
+        ChessGame finished = new ChessGame();
+        finished.setGameOver(true);
+        gameDAO.createGame(new GameData(1, "validUsername", "other", "Blitz", new ChessGame()));
+        gameDAO.createGame(new GameData(2, null, "other", "Bullet", new ChessGame()));
+        gameDAO.createGame(new GameData(3, "validUsername", null, "Blitz 2", finished));
+
+        assertEquals(List.of(2, 3), ids(new ListGamesRequest("validToken", null, null, true, false, null, null)));
+        assertEquals(List.of(1, 3), ids(new ListGamesRequest("validToken", null, null, false, true, null, null)));
+        assertEquals(List.of(3), ids(new ListGamesRequest("validToken", null, null, false, false,
+                ListGamesRequest.GameStatus.FINISHED, null)));
+        assertEquals(List.of(1, 3), ids(new ListGamesRequest("validToken", null, null, false, false, null, "Blitz")));
+    }
+
+    @Test
+    @DisplayName("listGames() Positive [Name prefix ignores case]")
+    public void listGamesNamePrefixIgnoresCase() throws Exception {
+        gameDAO.createGame(new GameData(1, null, null, "Blitz", new ChessGame()));
+        gameDAO.createGame(new GameData(2, null, null, "blitz 2", new ChessGame()));
+        gameDAO.createGame(new GameData(3, null, null, "Bullet", new ChessGame()));
+
+        assertEquals(List.of(1, 2), ids(new ListGamesRequest("validToken", null, null, false, false, null, "BLITZ")));
+        assertEquals(List.of(), ids(new ListGamesRequest("validToken", null, null, false, false, null, "Blitz 2 ")));
+    }
+
+    @Test
+    @DisplayName("listGames() Negative [Page size out of range]")
+    public void listGamesBadLimit() {
+        assertThrows(IllegalArgumentException.class, () ->
+                service.listGames(new ListGamesRequest("validToken", null, 0, false, false, null, null)));
+        assertThrows(IllegalArgumentException.class, () ->
+                service.listGames(new ListGamesRequest("validToken", null, 1000, false, false, null, null)));
+    }
+
+    private List<Integer> ids(ListGamesRequest request) {
+        return service.listGames(request).games().stream().map(GameInfo::gameID).toList();
+    }
+
     // =========================
     // JOIN GAME TESTS
     // =========================
@@ -121,4 +182,17 @@ public class GameServiceTests {
                 )
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("joinGame() Negative [Seat taken]")
+    public void joinGameNegativeSeatTaken() throws Exception {
+        var createResult =
+                service.createGame(new CreateGameRequest("validToken", "Game1"));
+        service.joinGame(new JoinGameRequest("validToken", "BLACK", createResult.gameID()));
+
+        assertThrows(AlreadyTakenException.class, () ->
+                service.joinGame(new JoinGameRequest("validToken", "BLACK", createResult.gameID()))
+        );
+        assertNull(gameDAO.listGames().get(0).whiteUsername());
+    }
+}
@@ -0,0 +1,83 @@
+package service;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.mindrot.jbcrypt.BCrypt;
+
+import http.service.PasswordHasher;
+import http.service.exceptions.OverloadedException;
+
+public class PasswordHasherTests {
+
+    private PasswordHasher hasher;
+
+    @AfterEach
+    public void tearDown() {
+        if (hasher != null) {
+            hasher.close();
+        }
+    }
+
+    @Test
+    @DisplayName("hash() Positive [uses the configured cost]")
+    public void hashUsesCost() {
+        hasher = new PasswordHasher(5, 1, 1);
+
+        String hash = hasher.hash("password");
+
+        assertTrue(hash.startsWith("$2a$05$"));
+        assertTrue(BCrypt.checkpw("password", hash));
+    }
+
+    @Test
+    @DisplayName("check() Positive [accepts hashes of any cost]")
+    public void checkAnyCost() {
+        hasher = new PasswordHasher(5, 1, 1);
+        String hash = BCrypt.hashpw("password", BCrypt.gensalt(4));
+
+        assertTrue(hasher.check("password", hash));
+        assertFalse(hasher.check("wrong", hash));
+    }
+
+    @Test
+    @DisplayName("hash() Negative [rejected at once when the queue is full]")
+    public void rejectsWhenSaturated() throws Exception {
+        hasher = new PasswordHasher(14, 1, 1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            // One hash running, one waiting
+            for (int i = 0; i < 2; i++) {
+                callers.execute(() -> {
+                    try {
+                        hasher.hash("password");
+                    } catch (RuntimeException ignored) {
+                        // released by close()
+                    }
+                });
+            }
+            while ((int) hasher.stats().get("active") + (int) hasher.stats().get("queued") < 2) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            assertThrows(OverloadedException.class, () -> hasher.hash("password"));
+            assertTrue(System.nanoTime() - start < 100_000_000L);
+            assertEquals(1L, hasher.stats().get("rejected"));
+        } finally {
+            hasher.close();
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("PasswordHasher() Negative [cost out of range]")
+    public void invalidCost() {
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(3, 1, 1));
+    }
+}
@@ -0,0 +1,52 @@
+package websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import websocket.messages.NotificationMessage;
+
+public class ConnectionManagerTests {
+
+    private ConnectionManager manager;
+
+    @BeforeEach
+    public void setup() {
+        manager = new ConnectionManager();
+    }
+
+    @Test
+    @DisplayName("remove() Positive [empty room is dropped]")
+    public void removeDropsEmptyRoom() {
+        manager.add("s1", new Connection("t1", "alice", 1, null));
+        manager.add("s2", new Connection("t2", "bob", 1, null));
+        manager.add("s3", new Connection("t3", "carol", 2, null));
+        assertEquals(2, manager.activeGameCount());
+
+        manager.remove("s1");
+        manager.remove("s3");
+        assertEquals(1, manager.activeGameCount());
+
+        manager.remove("s2");
+        assertEquals(0, manager.activeGameCount());
+        assertNull(manager.get("s2"));
+    }
+
+    @Test
+    @DisplayName("add() Positive [session moves to another game]")
+    public void addMovesSession() {
+        manager.add("s1", new Connection("t1", "alice", 1, null));
+        manager.add("s1", new Connection("t1", "alice", 2, null));
+
+        assertEquals(1, manager.activeGameCount());
+        assertEquals(2, manager.get("s1").getGameID());
+    }
+
+    @Test
+    @DisplayName("broadcastToGame() Negative [no connections]")
+    public void broadcastToEmptyGame() {
+        assertDoesNotThrow(() -> manager.broadcastToGame(7, new NotificationMessage("hello")));
+        assertEquals(0, manager.activeGameCount());
+    }
+}
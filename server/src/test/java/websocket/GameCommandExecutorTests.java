@@ -0,0 +1,126 @@
+package websocket;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameCommandExecutorTests {
+
+    private GameCommandExecutor executor;
+
+    @BeforeEach
+    public void setup() {
+        executor = new GameCommandExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    @DisplayName("submit() Positive [one game runs in order, one at a time]")
+    public void sameGameIsSequential() throws InterruptedException {
+        int commands = 2000;
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(commands);
+
+        for (int i = 0; i < commands; i++) {
+            int index = i;
+            executor.submit(1, () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                order.add(index);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (int i = 0; i < commands; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("submit() Positive [different games run in parallel]")
+    public void differentGamesAreParallel() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CountDownLatch done = new CountDownLatch(2);
+
+        for (int gameID = 1; gameID <= 2; gameID++) {
+            executor.submit(gameID, () -> {
+                bothStarted.countDown();
+                try {
+                    // Only finishes if the other game's command is running at the same time
+                    if (bothStarted.await(5, TimeUnit.SECONDS)) {
+                        done.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("submit() Negative [failing command does not stop the queue]")
+    public void failureDoesNotStopQueue() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.submit(3, () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.submit(3, done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1, executor.failedCount());
+    }
+
+    @Test
+    @DisplayName("queueDepths() Positive [idle games are dropped]")
+    public void idleGamesAreDropped() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+
+        executor.submit(4, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        });
+        executor.submit(4, done::countDown);
+        executor.submit(4, done::countDown);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.queueDepths().get(4));
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.activeGameCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, executor.activeGameCount());
+        assertTrue(executor.queueDepths().isEmpty());
+    }
+}
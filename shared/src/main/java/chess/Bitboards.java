@@ -0,0 +1,215 @@
+package chess;
+
+/**
+ * Bitboard helpers shared by the board and the move calculators.
+ * <p>
+ * Squares are indexed 0..63 with a1 = 0, h1 = 7 and a8 = 56, so a square index is
+ * {@code (row - 1) * 8 + (column - 1)} and bit {@code n} of a bitboard stands for square {@code n}.
+ */
+final class Bitboards {
+
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_8 = 0xFFL << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+
+    // Ray masks for walking sliding attacks, one row per direction
+    private static final int[][] DIRECTIONS = {
+            { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 },     // towards higher squares
+            { -1, 0 }, { 0, -1 }, { -1, -1 }, { -1, 1 }  // towards lower squares
+    };
+    private static final long[][] RAYS = new long[8][64];
+
+    // Squares strictly between two squares, and the whole line through them, when they
+    // share a rank, file or diagonal; 0 otherwise
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        int[][] knightSteps = {{ 2, -1 }, { 2, 1 }, { 1, 2 }, { -1, 2 },
+                                { -2, 1 }, { -2, -1 }, { -1, -2 }, { 1, -2 }};
+        int[][] kingSteps = {{ 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 },
+                                { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 }};
+
+        for (int square = 0; square < 64; square++) {
+            int row = row(square);
+            int col = column(square);
+
+            KNIGHT_ATTACKS[square] = stepTargets(row, col, knightSteps);
+            KING_ATTACKS[square] = stepTargets(row, col, kingSteps);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][square] =
+                    stepTargets(row, col, new int[][]{{ 1, -1 }, { 1, 1 }});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][square] =
+                    stepTargets(row, col, new int[][]{{ -1, -1 }, { -1, 1 }});
+
+            for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                long ray = 0L;
+                int r = row + DIRECTIONS[dir][0];
+                int c = col + DIRECTIONS[dir][1];
+                while (isOnBoard(r, c)) {
+                    ray |= bit(square(r, c));
+                    r += DIRECTIONS[dir][0];
+                    c += DIRECTIONS[dir][1];
+                }
+                RAYS[dir][square] = ray;
+            }
+        }
+
+        for (int square = 0; square < 64; square++) {
+            for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                long line = RAYS[dir][square] | RAYS[(dir + 4) % 8][square] | bit(square);
+                long between = 0L;
+                int r = row(square) + DIRECTIONS[dir][0];
+                int c = column(square) + DIRECTIONS[dir][1];
+                while (isOnBoard(r, c)) {
+                    int other = square(r, c);
+                    BETWEEN[square][other] = between;
+                    LINE[square][other] = line;
+                    between |= bit(other);
+                    r += DIRECTIONS[dir][0];
+                    c += DIRECTIONS[dir][1];
+                }
+            }
+        }
+    }
+
+    private Bitboards() {}
+
+    private static long stepTargets(int row, int col, int[][] steps) {
+        long targets = 0L;
+        for (int[] step : steps) {
+            int r = row + step[0];
+            int c = col + step[1];
+            if (isOnBoard(r, c)) {
+                targets |= bit(square(r, c));
+            }
+        }
+        return targets;
+    }
+
+    static boolean isOnBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * Index of a position coming in from outside the package. Unlike the grid it replaced,
+     * the index would wrap an off-board position onto some other square, so reject it.
+     */
+    static int square(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (!isOnBoard(row, col)) {
+            throw new IllegalArgumentException("Position off the board: " + position);
+        }
+        return square(row, col);
+    }
+
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static ChessPosition position(int square) {
+        return ChessPosition.of(row(square), column(square));
+    }
+
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Index of the lowest set bit; callers pop it with {@code bits &= bits - 1}
+     */
+    static int first(long bits) {
+        return Long.numberOfTrailingZeros(bits);
+    }
+
+    static long rookAttacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied);
+    }
+
+    static long bishopAttacks(int square, long occupied) {
+        return Magics.bishopAttacks(square, occupied);
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return Magics.rookAttacks(square, occupied) | Magics.bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Rook attacks found by walking each ray; used to fill the magic tables
+     */
+    static long slidingRookAttacks(int square, long occupied) {
+        return rayAttacks(0, square, occupied) | rayAttacks(1, square, occupied)
+                | rayAttacks(4, square, occupied) | rayAttacks(5, square, occupied);
+    }
+
+    /**
+     * Bishop attacks found by walking each ray; used to fill the magic tables
+     */
+    static long slidingBishopAttacks(int square, long occupied) {
+        return rayAttacks(2, square, occupied) | rayAttacks(3, square, occupied)
+                | rayAttacks(6, square, occupied) | rayAttacks(7, square, occupied);
+    }
+
+    /**
+     * Attacks along one ray, stopping at (and including) the first blocker
+     */
+    private static long rayAttacks(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers == 0) {
+            return ray;
+        }
+        int blocker = dir < 4
+                ? Long.numberOfTrailingZeros(blockers)
+                : 63 - Long.numberOfLeadingZeros(blockers);
+        return ray ^ RAYS[dir][blocker];
+    }
+
+    /**
+     * Forward moves of a pawn onto empty squares; the double step from the starting
+     * row needs both squares empty
+     */
+    static long pawnPushes(ChessGame.TeamColor color, int square, long empty) {
+        long from = bit(square);
+        if (color == ChessGame.TeamColor.WHITE) {
+            long single = (from << 8) & empty;
+            return row(square) == 2 ? single | ((single << 8) & empty) : single;
+        }
+        long single = (from >>> 8) & empty;
+        return row(square) == 7 ? single | ((single >>> 8) & empty) : single;
+    }
+
+    /**
+     * Squares attacked by the given piece standing on square. Pawns only attack
+     * diagonally, so their forward pushes are not included.
+     */
+    static long attacks(ChessPiece piece, int square, long occupied) {
+        return switch (piece.getPieceType()) {
+            case KING -> KING_ATTACKS[square];
+            case QUEEN -> queenAttacks(square, occupied);
+            case BISHOP -> bishopAttacks(square, occupied);
+            case KNIGHT -> KNIGHT_ATTACKS[square];
+            case ROOK -> rookAttacks(square, occupied);
+            case PAWN -> PAWN_ATTACKS[piece.getTeamColor().ordinal()][square];
+        };
+    }
+}
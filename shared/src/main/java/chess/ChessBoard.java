@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -12,7 +11,40 @@ import java.util.Objects;
 public class ChessBoard {
 
     ChessPiece[][] squares = new ChessPiece[8][8];
-    public ChessBoard() {}
+
+    // Bitboard index kept in step with squares: one board per color and piece type
+    // (color.ordinal() * 6 + type.ordinal()), occupancy masks, each king's square and the
+    // Zobrist key of the piece placement. The grid is the
+    // serialized form; the index is rebuilt whenever the grid is replaced from outside,
+    // e.g. by Gson filling in a deserialized board.
+    private transient long[] pieceBitboards = new long[12];
+    private transient long[] colorBitboards = new long[2];
+    private transient long occupied;
+    private transient int[] kingSquares = { -1, -1 };
+    private transient long key;
+    private transient ChessPiece[][] indexedSquares;
+
+    public ChessBoard() {
+        indexedSquares = squares;
+    }
+
+    /**
+     * Creates an independent copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        other.ensureIndexed();
+        for (int row = 0; row < squares.length; row++) {
+            squares[row] = other.squares[row].clone();
+        }
+        pieceBitboards = other.pieceBitboards.clone();
+        colorBitboards = other.colorBitboards.clone();
+        occupied = other.occupied;
+        kingSquares = other.kingSquares.clone();
+        key = other.key;
+        indexedSquares = squares;
+    }
 
     /**
      * Adds a chess piece to the chessboard
@@ -21,7 +53,7 @@ public class ChessBoard {
      * @param piece    the piece to add
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        setPiece(Bitboards.square(position), piece);
     }
 
     /**
@@ -35,6 +67,157 @@ public class ChessBoard {
         return squares[position.getRow()-1][position.getColumn()-1];
     }
 
+    ChessPiece pieceAt(int square) {
+        return squares[square >>> 3][square & 7];
+    }
+
+    void setPiece(int square, ChessPiece piece) {
+        ensureIndexed();
+        ChessPiece old = squares[square >>> 3][square & 7];
+        if (old != null) {
+            toggle(old, square);
+        }
+        squares[square >>> 3][square & 7] = piece;
+        if (piece != null) {
+            toggle(piece, square);
+        }
+    }
+
+    /**
+     * @return bitboard of the given team's pieces of the given type
+     */
+    long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        ensureIndexed();
+        return pieceBitboards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of every square holding one of the given team's pieces
+     */
+    long occupancy(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    long occupied() {
+        ensureIndexed();
+        return occupied;
+    }
+
+    /**
+     * @return the square of the given team's king, or -1 if it has none
+     */
+    int kingSquare(ChessGame.TeamColor color) {
+        ensureIndexed();
+        return kingSquares[color.ordinal()];
+    }
+
+    /**
+     * @return Zobrist key of the piece placement, without side to move
+     */
+    long key() {
+        ensureIndexed();
+        return key;
+    }
+
+    /**
+     * Determines if any piece of the given team attacks a square, by looking outward from
+     * the square with each piece's attack pattern instead of generating the team's moves
+     *
+     * @param position the square to look at
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor attacks position
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return attackersTo(Bitboards.square(position), byColor, occupied()) != 0;
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return attackersTo(square, byColor, occupied()) != 0;
+    }
+
+    /**
+     * @param occupied the occupancy sliding pieces are blocked by, which callers can
+     *                 adjust, e.g. to see through a king that is about to move
+     * @return bitboard of byColor's pieces that attack square
+     */
+    long attackersTo(int square, ChessGame.TeamColor byColor, long occupied) {
+        ensureIndexed();
+        int base = pieceIndex(byColor, ChessPiece.PieceType.KING);
+        long queens = pieceBitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+
+        // A pawn attacks square exactly when a pawn of the other team on square would attack it
+        return (Bitboards.PAWN_ATTACKS[1 - byColor.ordinal()][square]
+                        & pieceBitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Bitboards.KNIGHT_ATTACKS[square] & pieceBitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.KING_ATTACKS[square] & pieceBitboards[base])
+                | (Bitboards.rookAttacks(square, occupied)
+                        & (pieceBitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens))
+                | (Bitboards.bishopAttacks(square, occupied)
+                        & (pieceBitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens));
+    }
+
+    /**
+     * Squares the piece on square can move to, without regard to whether its own
+     * king would be left in check
+     */
+    long targets(int square) {
+        ChessPiece piece = pieceAt(square);
+        ChessGame.TeamColor color = piece.getTeamColor();
+        if (piece.getPieceType() != ChessPiece.PieceType.PAWN) {
+            return Bitboards.attacks(piece, square, occupied()) & ~occupancy(color);
+        }
+
+        ChessGame.TeamColor enemy = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK
+                : ChessGame.TeamColor.WHITE;
+        return Bitboards.pawnPushes(color, square, ~occupied())
+                | (Bitboards.PAWN_ATTACKS[color.ordinal()][square] & occupancy(enemy));
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static int pieceIndex(ChessPiece piece) {
+        return pieceIndex(piece.getTeamColor(), piece.getPieceType());
+    }
+
+    private void toggle(ChessPiece piece, int square) {
+        long bit = Bitboards.bit(square);
+        int index = pieceIndex(piece);
+        pieceBitboards[index] ^= bit;
+        colorBitboards[piece.getTeamColor().ordinal()] ^= bit;
+        occupied ^= bit;
+        key ^= Zobrist.piece(index, square);
+
+        if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+            long kings = pieceBitboards[index];
+            kingSquares[piece.getTeamColor().ordinal()] = kings == 0 ? -1 : Bitboards.first(kings);
+        }
+    }
+
+    private void ensureIndexed() {
+        if (indexedSquares == squares) {
+            return;
+        }
+        pieceBitboards = new long[12];
+        colorBitboards = new long[2];
+        occupied = 0L;
+        kingSquares = new int[]{ -1, -1 };
+        key = 0L;
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = pieceAt(square);
+            if (piece != null) {
+                toggle(piece, square);
+            }
+        }
+        indexedSquares = squares;
+    }
+
     /**
      * Sets the board to the default starting board
      * (How the game of chess normally starts)
@@ -54,12 +237,18 @@ public class ChessBoard {
         for (ChessPiece[] square : squares) {
             Arrays.fill(square, null);
         }
+        Arrays.fill(pieceBitboards, 0L);
+        Arrays.fill(colorBitboards, 0L);
+        Arrays.fill(kingSquares, -1);
+        occupied = 0L;
+        key = 0L;
+        indexedSquares = squares;
 
         for (int i = 0; i < squares.length; i++) {
-            squares[0][i] = new ChessPiece(ChessGame.TeamColor.WHITE, backRank[i]);
-            squares[1][i] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
-            squares[6][i] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
-            squares[7][i] = new ChessPiece(ChessGame.TeamColor.BLACK, backRank[i]);
+            setPiece(Bitboards.square(1, i + 1), ChessPiece.of(ChessGame.TeamColor.WHITE, backRank[i]));
+            setPiece(Bitboards.square(2, i + 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            setPiece(Bitboards.square(7, i + 1), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            setPiece(Bitboards.square(8, i + 1), ChessPiece.of(ChessGame.TeamColor.BLACK, backRank[i]));
         }
     }
 
@@ -93,11 +282,13 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        ensureIndexed();
+        that.ensureIndexed();
+        return key == that.key && Arrays.equals(pieceBitboards, that.pieceBitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(key());
     }
 }
@@ -1,11 +1,9 @@
 package chess;
 
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.Objects;
 
-import static chess.PawnMoveCheck.isInBounds;
-
 /**
  * For a class that can manage a chess game, making moves on a board
  * <p>
@@ -13,13 +11,54 @@ import static chess.PawnMoveCheck.isInBounds;
  * signature of the existing methods.
  */
 public class ChessGame {
+    // The fifty-move rule ends a game after 100 plies, so older keys are never needed
+    private static final int MAX_HISTORY = 128;
+
     private TeamColor currentTeamTurn;
-    private ChessBoard gameBoard = new ChessBoard();
+    private ChessBoard gameBoard;
     private boolean gameOver = false;
+    private int fullmoveNumber = 1;
+
+    // Plies since the last capture or pawn move, and the keys of the positions reached
+    // since then, oldest first. Nothing before an irreversible move can be repeated, so
+    // that is all repetition detection has to look at. The keys stay out of JSON; see
+    // ChessTypeAdapters.
+    private int halfmoveClock = 0;
+    private transient long[] keyHistory = new long[16];
+    private transient int historySize = 0;
+
+    // Scratch buffer for the move generator, reused across calls
+    private transient MoveList moveBuffer = new MoveList();
 
     public ChessGame() {
+        gameBoard = new ChessBoard();
         gameBoard.resetBoard();
         currentTeamTurn = TeamColor.WHITE;
+        resetHistory();
+    }
+
+    ChessGame(ChessBoard board, TeamColor turn, int halfmoveClock, int fullmoveNumber) {
+        gameBoard = board;
+        currentTeamTurn = turn;
+        this.fullmoveNumber = fullmoveNumber;
+        resetHistory();
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    /**
+     * Creates an independent copy of another game, including its board and the
+     * positions it remembers for repetition detection
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        currentTeamTurn = other.currentTeamTurn;
+        gameBoard = new ChessBoard(other.gameBoard);
+        gameOver = other.gameOver;
+        fullmoveNumber = other.fullmoveNumber;
+        halfmoveClock = other.halfmoveClock;
+        keyHistory = other.keyHistory.clone();
+        historySize = other.historySize;
     }
 
     /**
@@ -36,6 +75,154 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         currentTeamTurn = team;
+        resetHistory();
+    }
+
+    /**
+     * Gets a 64-bit Zobrist key identifying the position: the piece placement and the
+     * side to move. It is kept up to date as pieces move, so this is O(1).
+     *
+     * @return the position key
+     */
+    public long positionKey() {
+        long key = gameBoard.key();
+        return currentTeamTurn == TeamColor.BLACK ? key ^ Zobrist.BLACK_TO_MOVE : key;
+    }
+
+    /**
+     * Creates a game from a position in Forsyth-Edwards Notation. Only the piece placement
+     * and side to move are required; castling and en passant fields are accepted but
+     * ignored, since this game has neither.
+     *
+     * @param fen the position, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1"
+     * @return a new game in that position
+     * @throws IllegalArgumentException if fen is not a well-formed position
+     */
+    public static ChessGame fromFen(CharSequence fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the current position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.format(this);
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1 and increasing after
+     * each of black's moves
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * @return the number of plies since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Determines if the current position has now occurred three times, counting only
+     * positions since the last capture or pawn move
+     *
+     * @return True if the game can be drawn by threefold repetition
+     */
+    public boolean isThreefoldRepetition() {
+        if (historySize == 0) {
+            return false;
+        }
+        long current = keyHistory[historySize - 1];
+        int occurrences = 1;
+        // The key includes the side to move, so only every other ply can match
+        for (int i = historySize - 3; i >= 0; i -= 2) {
+            if (keyHistory[i] == current && ++occurrences == 3) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return True if 50 moves by each side have passed without a capture or pawn move
+     */
+    public boolean isFiftyMoveRule() {
+        return halfmoveClock >= 100;
+    }
+
+    /**
+     * @return the keys of the positions reached since the last capture or pawn move,
+     * oldest first and ending with the current position
+     */
+    long[] positionHistory() {
+        return Arrays.copyOf(keyHistory, historySize);
+    }
+
+    /**
+     * Replaces the remembered positions, e.g. with ones read back from storage. History
+     * that does not end in the current position cannot belong to this game and is
+     * ignored.
+     */
+    void restoreHistory(long[] keys) {
+        if (keys.length == 0 || keys.length > MAX_HISTORY || keys[keys.length - 1] != positionKey()) {
+            return;
+        }
+        keyHistory = Arrays.copyOf(keys, Math.max(keys.length, 16));
+        historySize = keys.length;
+    }
+
+    /**
+     * Rebuilds the remembered positions from the moves that led to the current one. Every
+     * move since the last capture or pawn move is reversible, so the last halfmoveClock
+     * of them can be taken back one at a time to recover the positions before it. Stops
+     * at the first move that doesn't fit, e.g. where the log has a gap.
+     *
+     * @param moves packed moves played before the current position, oldest first
+     */
+    void rebuildHistory(int[] moves) {
+        int count = Math.min(Math.min(halfmoveClock, moves.length), MAX_HISTORY - 1);
+        long[] keys = new long[count + 1];
+        keys[count] = positionKey();
+
+        ChessBoard board = new ChessBoard(gameBoard);
+        TeamColor turn = currentTeamTurn;
+        int taken = 0;
+        while (taken < count) {
+            int move = moves[moves.length - 1 - taken];
+            int from = Move.from(move);
+            int to = Move.to(move);
+            ChessPiece piece = board.pieceAt(to);
+            if (Move.promotion(move) != null || piece == null || piece.getTeamColor() == turn
+                    || piece.getPieceType() == ChessPiece.PieceType.PAWN || board.pieceAt(from) != null) {
+                break;
+            }
+            board.setPiece(to, null);
+            board.setPiece(from, piece);
+            turn = (turn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+            taken++;
+            keys[count - taken] = turn == TeamColor.BLACK ? board.key() ^ Zobrist.BLACK_TO_MOVE : board.key();
+        }
+        restoreHistory(Arrays.copyOfRange(keys, count - taken, count + 1));
+    }
+
+    private void resetHistory() {
+        halfmoveClock = 0;
+        historySize = 0;
+        recordPosition();
+    }
+
+    private void recordPosition() {
+        if (historySize == keyHistory.length) {
+            if (historySize == MAX_HISTORY) {
+                System.arraycopy(keyHistory, 1, keyHistory, 0, historySize - 1);
+                historySize--;
+            } else {
+                keyHistory = Arrays.copyOf(keyHistory, historySize * 2);
+            }
+        }
+        keyHistory[historySize++] = positionKey();
     }
 
     public boolean isGameOver() {
@@ -67,30 +254,71 @@ public class ChessGame {
             return null;
         }
 
-        Collection<ChessMove> moves = startPiece.pieceMoves(gameBoard, startPosition);
-        Iterator<ChessMove> movesToCheck = moves.iterator();
-        while (movesToCheck.hasNext()) {
-            ChessMove currMove = movesToCheck.next();
-            ChessPosition endPosition = currMove.getEndPosition();
-            ChessPiece.PieceType promotionPieceType = currMove.getPromotionPiece();
-
-            gameBoard.addPiece(startPosition, null);
-            ChessPiece endPiece = gameBoard.getPiece(endPosition);
-            if (promotionPieceType != null) {
-                ChessPiece promotionPiece = new ChessPiece(startPiece.getTeamColor(), promotionPieceType);
-                gameBoard.addPiece(endPosition, promotionPiece);
-            } else {
-                gameBoard.addPiece(endPosition, startPiece);
-            }
+        moveBuffer.clear();
+        LegalMoveGenerator.generate(gameBoard, startPiece.getTeamColor(),
+                Bitboards.bit(Bitboards.square(startPosition)), moveBuffer, Integer.MAX_VALUE);
+        return moveBuffer.toChessMoves();
+    }
 
-            if (isInCheck(startPiece.getTeamColor())) {
-                movesToCheck.remove();
-            }
+    /**
+     * Gets every valid move for a team, whether or not it is that team's turn
+     *
+     * @param teamColor the team to get valid moves for
+     * @return Set of valid moves for the team's pieces
+     */
+    public Collection<ChessMove> allLegalMoves(TeamColor teamColor) {
+        moveBuffer.clear();
+        LegalMoveGenerator.generate(gameBoard, teamColor, -1L, moveBuffer, Integer.MAX_VALUE);
+        return moveBuffer.toChessMoves();
+    }
+
+    /**
+     * Fills moves with the packed legal moves of the team whose turn it is
+     */
+    void generateLegalMoves(MoveList moves) {
+        moves.clear();
+        LegalMoveGenerator.generate(gameBoard, currentTeamTurn, -1L, moves, Integer.MAX_VALUE);
+    }
 
-            gameBoard.addPiece(startPosition, startPiece);
-            gameBoard.addPiece(endPosition, endPiece);
+    /**
+     * Plays a packed move; see {@link #makeMove(int, int, ChessPiece.PieceType)}
+     */
+    int makeMove(int move) {
+        return makeMove(Move.from(move), Move.to(move), Move.promotion(move));
+    }
+
+    /**
+     * Plays a move on the board and passes the turn, without checking that it is legal.
+     * Nothing is allocated, so this is safe to call in tight loops.
+     *
+     * @param promotion the piece a pawn is promoted to, or null
+     * @return an undo record to pass to {@link #unmakeMove(int)}
+     */
+    int makeMove(int from, int to, ChessPiece.PieceType promotion) {
+        ChessPiece moved = gameBoard.pieceAt(from);
+        ChessPiece captured = gameBoard.pieceAt(to);
+        int undo = MoveUndo.pack(from, to, captured, moved, currentTeamTurn);
+
+        gameBoard.setPiece(from, null);
+        if (promotion != null) {
+            gameBoard.setPiece(to, ChessPiece.of(moved.getTeamColor(), promotion));
+        } else {
+            gameBoard.setPiece(to, moved);
         }
-        return moves;
+
+        currentTeamTurn = (currentTeamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        return undo;
+    }
+
+    /**
+     * Takes back a move played with {@link #makeMove(int, int, ChessPiece.PieceType)}
+     *
+     * @param undo the record that makeMove returned
+     */
+    void unmakeMove(int undo) {
+        gameBoard.setPiece(MoveUndo.from(undo), MoveUndo.moved(undo));
+        gameBoard.setPiece(MoveUndo.to(undo), MoveUndo.captured(undo));
+        currentTeamTurn = MoveUndo.turn(undo);
     }
 
     /**
@@ -111,6 +339,11 @@ public class ChessGame {
             throw new InvalidMoveException();
         }
 
+        if (!Bitboards.isOnBoard(startPosition.getRow(), startPosition.getColumn())
+                || !Bitboards.isOnBoard(endPosition.getRow(), endPosition.getColumn())) {
+            throw new InvalidMoveException();
+        }
+
         if (gameOver) {
             throw new InvalidMoveException();
         }
@@ -124,8 +357,11 @@ public class ChessGame {
             throw new InvalidMoveException();
         }
 
-        Collection<ChessMove> legalMoves = validMoves(startPosition);
-        if (legalMoves == null || !legalMoves.contains(move)) {
+        int packedMove = Move.encode(move);
+        moveBuffer.clear();
+        LegalMoveGenerator.generate(gameBoard, currentTeamTurn, Bitboards.bit(Move.from(packedMove)),
+                moveBuffer, Integer.MAX_VALUE);
+        if (!moveBuffer.contains(packedMove)) {
             throw new InvalidMoveException();
         }
 
@@ -136,18 +372,19 @@ public class ChessGame {
             throw new InvalidMoveException();
         }
 
-        ChessPiece.PieceType promotionPieceType = move.getPromotionPiece();
-
-        gameBoard.addPiece(startPosition, null);
+        boolean irreversible = targetPiece != null || startPiece.getPieceType() == ChessPiece.PieceType.PAWN;
+        makeMove(packedMove);
+        if (currentTeamTurn == TeamColor.WHITE) {
+            fullmoveNumber++;
+        }
 
-        if (promotionPieceType != null) {
-            ChessPiece promotionPiece = new ChessPiece(startPiece.getTeamColor(), promotionPieceType);
-            gameBoard.addPiece(endPosition, promotionPiece);
+        if (irreversible) {
+            halfmoveClock = 0;
+            historySize = 0;
         } else {
-            gameBoard.addPiece(endPosition, startPiece);
+            halfmoveClock++;
         }
-
-        currentTeamTurn = (currentTeamTurn == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
+        recordPosition();
     }
 
     /**
@@ -157,68 +394,13 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = null;
-
-        // Find the king
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = gameBoard.getPiece(pos);
-
-                if (piece != null
-                        && piece.getTeamColor() == teamColor
-                        && piece.getPieceType() == ChessPiece.PieceType.KING) {
-                    kingPosition = pos;
-                    break;
-                }
-            }
-            if (kingPosition != null) {
-                break;
-            }
-        }
-
-        if (kingPosition == null) {
+        int kingSquare = gameBoard.kingSquare(teamColor);
+        if (kingSquare < 0) {
             throw new IllegalStateException("King not found for team " + teamColor);
         }
 
         TeamColor enemyColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
-
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition pos = new ChessPosition(row, col);
-                ChessPiece piece = gameBoard.getPiece(pos);
-
-                if (isEnemyAttackingKing(piece, enemyColor, pos, kingPosition)) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    private boolean isEnemyAttackingKing(
-            ChessPiece piece,
-            TeamColor enemyColor,
-            ChessPosition piecePosition,
-            ChessPosition kingPosition) {
-
-        if (piece == null || piece.getTeamColor() != enemyColor) {
-            return false;
-        }
-
-        Collection<ChessMove> enemyMoves = piece.pieceMoves(gameBoard, piecePosition);
-        if (enemyMoves == null) {
-            return false;
-        }
-
-        for (ChessMove move : enemyMoves) {
-            if (move.getEndPosition().equals(kingPosition)) {
-                return true;
-            }
-        }
-
-        return false;
+        return gameBoard.isSquareAttacked(kingSquare, enemyColor);
     }
 
     /**
@@ -243,20 +425,7 @@ public class ChessGame {
     }
 
     private boolean hasAnyValidMove(TeamColor teamColor) {
-        for (int i = 1; i <= 8; i++) {
-            for (int j = 1; j <= 8; j++) {
-                ChessPosition currPosition = new ChessPosition(i, j);
-                ChessPiece piece = gameBoard.getPiece(currPosition);
-
-                if (piece != null && piece.getTeamColor() == teamColor) {
-                    Collection<ChessMove> moves = validMoves(currPosition);
-                    if (moves != null && !moves.isEmpty()) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return LegalMoveGenerator.generate(gameBoard, teamColor, -1L, null, 1) > 0;
     }
 
     /**
@@ -266,6 +435,7 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         gameBoard = board;
+        resetHistory();
     }
 
     /**
@@ -290,7 +460,7 @@ public class ChessGame {
 
     @Override
     public int hashCode() {
-        return Objects.hash(currentTeamTurn, gameBoard, gameOver);
+        return 31 * Long.hashCode(positionKey()) + (gameOver ? 1 : 0);
     }
 
     @Override
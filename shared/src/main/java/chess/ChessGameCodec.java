@@ -0,0 +1,165 @@
+package chess;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Compact, versioned binary form of a {@link ChessGame} for storage.
+ * <pre>
+ *  byte  0       format version
+ *  byte  1       flags: bit 0 black to move, bit 1 game over
+ *  bytes 2-33    board, one nibble per square: square n is in byte 2 + n / 2, low nibble
+ *                for even n; 0 for an empty square, otherwise the piece index + 1
+ *  bytes 34-     extension records, each a tag byte, a two-byte length and its payload
+ * </pre>
+ * Extensions carry everything beyond the position itself. Readers skip tags they do not
+ * know, so new ones can be added without bumping the version; changing the fixed part
+ * does need a new version.
+ * <p>
+ * The repetition history is not stored, since it would add up to 800 bytes to every
+ * game. A store that keeps a move log rebuilds it with {@link #rebuildHistory}.
+ */
+public final class ChessGameCodec {
+
+    static final byte VERSION = 1;
+
+    private static final int BLACK_TO_MOVE = 1;
+    private static final int GAME_OVER = 1 << 1;
+
+    private static final int HEADER_SIZE = 2;
+    private static final int BOARD_SIZE = 32;
+    private static final int EXTENSION_HEADER_SIZE = 3;
+
+    // Halfmove clock and fullmove number, two bytes each
+    private static final byte TAG_CLOCKS = 1;
+    // Position keys since the last capture or pawn move, eight bytes each. No longer
+    // written, but still read from games stored by older versions.
+    private static final byte TAG_HISTORY = 2;
+
+    private ChessGameCodec() {}
+
+    public static byte[] encode(ChessGame game) {
+        int size = HEADER_SIZE + BOARD_SIZE + EXTENSION_HEADER_SIZE + 4;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+
+        int flags = (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0)
+                | (game.isGameOver() ? GAME_OVER : 0);
+        buffer.put(VERSION).put((byte) flags);
+
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square += 2) {
+            buffer.put((byte) (code(board.pieceAt(square)) | code(board.pieceAt(square + 1)) << 4));
+        }
+
+        buffer.put(TAG_CLOCKS).putShort((short) 4)
+                .putShort((short) Math.min(game.getHalfmoveClock(), 0xFFFF))
+                .putShort((short) Math.min(game.getFullmoveNumber(), 0xFFFF));
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalArgumentException if data is not a game written by a known version
+     * of this codec
+     */
+    public static ChessGame decode(byte[] data) {
+        if (data == null || data.length < HEADER_SIZE + BOARD_SIZE) {
+            throw new IllegalArgumentException("Encoded game is truncated");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        if (buffer.get() != VERSION) {
+            throw new IllegalArgumentException("Unsupported encoded game version " + data[0]);
+        }
+        int flags = buffer.get();
+
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square += 2) {
+            int packed = buffer.get() & 0xFF;
+            place(board, square, packed & 0xF);
+            place(board, square + 1, packed >>> 4);
+        }
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        long[] history = null;
+        try {
+            while (buffer.hasRemaining()) {
+                byte tag = buffer.get();
+                int length = buffer.getShort() & 0xFFFF;
+                if (length > buffer.remaining()) {
+                    throw new IllegalArgumentException("Encoded game extension " + tag + " is truncated");
+                }
+                int end = buffer.position() + length;
+                if (tag == TAG_CLOCKS && length >= 4) {
+                    halfmoveClock = buffer.getShort() & 0xFFFF;
+                    fullmoveNumber = Math.max(1, buffer.getShort() & 0xFFFF);
+                } else if (tag == TAG_HISTORY) {
+                    history = new long[length / Long.BYTES];
+                    for (int i = 0; i < history.length; i++) {
+                        history[i] = buffer.getLong();
+                    }
+                }
+                // Anything else is an extension from a newer writer
+                buffer.position(end);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Encoded game is truncated", e);
+        }
+
+        ChessGame.TeamColor turn = (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        ChessGame game = new ChessGame(board, turn, halfmoveClock, fullmoveNumber);
+        game.setGameOver((flags & GAME_OVER) != 0);
+        if (history != null) {
+            game.restoreHistory(history);
+        }
+        return game;
+    }
+
+    /**
+     * Rebuilds the repetition history of a decoded game from the moves that led to it.
+     * Only the last halfmoveClock moves matter; any before them are ignored.
+     *
+     * @param moves moves written by encodeMove, oldest first, ending with the one that
+     * reached the game's position
+     * @throws IllegalArgumentException if a value is not a move written by encodeMove
+     */
+    public static void rebuildHistory(ChessGame game, List<Integer> moves) {
+        int[] packed = new int[moves.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = encodeMove(decodeMove(moves.get(i)));
+        }
+        game.rebuildHistory(packed);
+    }
+
+    /**
+     * Packs a move into 15 bits: from square, to square and promotion piece, so a move
+     * log can store each move as a SMALLINT
+     */
+    public static int encodeMove(ChessMove move) {
+        return Move.encode(move);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value is not a move written by encodeMove
+     */
+    public static ChessMove decodeMove(int encoded) {
+        if (encoded < 0 || encoded >= 1 << 15 || (encoded >>> 12) > ChessPiece.PieceType.values().length) {
+            throw new IllegalArgumentException("Invalid encoded move " + encoded);
+        }
+        return Move.toChessMove(encoded);
+    }
+
+    private static int code(ChessPiece piece) {
+        return piece == null ? 0 : ChessBoard.pieceIndex(piece) + 1;
+    }
+
+    private static void place(ChessBoard board, int square, int code) {
+        if (code == 0) {
+            return;
+        }
+        if (code > 12) {
+            throw new IllegalArgumentException("Invalid piece code " + code + " on square " + square);
+        }
+        board.setPiece(square, ChessPiece.fromIndex(code - 1));
+    }
+}
@@ -0,0 +1,284 @@
+package chess;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Hand-written streaming Gson adapters for the chess types.
+ * <p>
+ * They read and write the same JSON as Gson's reflective adapters, so clients that
+ * deserialize with a plain {@code new Gson()} keep working, but skip the reflection and
+ * intermediate objects. Unknown fields are skipped when reading.
+ * <p>
+ * A game's repetition history is left out. It is up to a hundred 64-bit position keys,
+ * which would go out with every LOAD_GAME and which a JavaScript client can't even read
+ * without losing precision. Only the server needs it, to detect repetition. History
+ * written by older versions is still read.
+ */
+public final class ChessTypeAdapters {
+
+    private ChessTypeAdapters() {}
+
+    /**
+     * Registers the adapters for ChessGame, ChessBoard, ChessMove, ChessPosition and
+     * ChessPiece
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(ChessGame.class, new GameAdapter().nullSafe())
+                .registerTypeAdapter(ChessBoard.class, new BoardAdapter().nullSafe())
+                .registerTypeAdapter(ChessMove.class, new MoveAdapter().nullSafe())
+                .registerTypeAdapter(ChessPosition.class, new PositionAdapter().nullSafe())
+                .registerTypeAdapter(ChessPiece.class, new PieceAdapter().nullSafe());
+    }
+
+    static final class GameAdapter extends TypeAdapter<ChessGame> {
+        private final BoardAdapter boardAdapter = new BoardAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            out.beginObject();
+            if (game.getTeamTurn() != null) {
+                out.name("currentTeamTurn").value(game.getTeamTurn().name());
+            }
+            out.name("gameBoard");
+            boardAdapter.write(out, game.getBoard());
+            out.name("gameOver").value(game.isGameOver());
+            out.name("fullmoveNumber").value(game.getFullmoveNumber());
+            out.name("halfmoveClock").value(game.getHalfmoveClock());
+            out.endObject();
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+            ChessBoard board = null;
+            boolean gameOver = false;
+            int fullmoveNumber = 1;
+            int halfmoveClock = 0;
+            long[] history = null;
+            int historySize = -1;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "currentTeamTurn" -> turn = nextEnum(in, ChessGame.TeamColor.class, turn);
+                    case "gameBoard" -> board = in.peek() == JsonToken.NULL ? skipNull(in) : boardAdapter.read(in);
+                    case "gameOver" -> gameOver = in.nextBoolean();
+                    case "fullmoveNumber" -> fullmoveNumber = in.nextInt();
+                    case "halfmoveClock" -> halfmoveClock = in.nextInt();
+                    case "keyHistory" -> history = in.peek() == JsonToken.NULL ? skipNull(in) : readLongs(in);
+                    case "historySize" -> historySize = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (board == null) {
+                board = new ChessBoard();
+                board.resetBoard();
+            }
+            ChessGame game = new ChessGame(board, turn, halfmoveClock, Math.max(1, fullmoveNumber));
+            game.setGameOver(gameOver);
+            if (history != null) {
+                int size = historySize < 0 ? history.length : Math.min(historySize, history.length);
+                game.restoreHistory(Arrays.copyOf(history, size));
+            }
+            return game;
+        }
+
+        private static long[] readLongs(JsonReader in) throws IOException {
+            long[] values = new long[16];
+            int size = 0;
+            in.beginArray();
+            while (in.hasNext()) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = in.nextLong();
+            }
+            in.endArray();
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Writes the board as its 8x8 grid of pieces, the same as the reflective form
+     */
+    static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        private final PieceAdapter pieceAdapter = new PieceAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.beginObject();
+            out.name("squares").beginArray();
+            for (int row = 0; row < 8; row++) {
+                out.beginArray();
+                for (int col = 0; col < 8; col++) {
+                    ChessPiece piece = board.pieceAt(row * 8 + col);
+                    if (piece == null) {
+                        out.nullValue();
+                    } else {
+                        pieceAdapter.write(out, piece);
+                    }
+                }
+                out.endArray();
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals("squares") || in.peek() == JsonToken.NULL) {
+                    in.skipValue();
+                    continue;
+                }
+                in.beginArray();
+                for (int row = 0; in.hasNext(); row++) {
+                    in.beginArray();
+                    for (int col = 0; in.hasNext(); col++) {
+                        if (in.peek() == JsonToken.NULL) {
+                            in.nextNull();
+                            continue;
+                        }
+                        ChessPiece piece = pieceAdapter.read(in);
+                        if (row >= 8 || col >= 8) {
+                            throw new IOException("Board square [" + row + "][" + col + "] is off the board");
+                        }
+                        board.setPiece(row * 8 + col, piece);
+                    }
+                    in.endArray();
+                }
+                in.endArray();
+            }
+            in.endObject();
+            return board;
+        }
+    }
+
+    static final class PieceAdapter extends TypeAdapter<ChessPiece> {
+        @Override
+        public void write(JsonWriter out, ChessPiece piece) throws IOException {
+            out.beginObject();
+            out.name("pieceColor").value(piece.getTeamColor().name());
+            out.name("type").value(piece.getPieceType().name());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPiece read(JsonReader in) throws IOException {
+            ChessGame.TeamColor color = null;
+            ChessPiece.PieceType type = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "pieceColor" -> color = nextEnum(in, ChessGame.TeamColor.class, null);
+                    case "type" -> type = nextEnum(in, ChessPiece.PieceType.class, null);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (color == null || type == null) {
+                throw new IOException("Chess piece needs a pieceColor and type");
+            }
+            return ChessPiece.of(color, type);
+        }
+    }
+
+    static final class PositionAdapter extends TypeAdapter<ChessPosition> {
+        @Override
+        public void write(JsonWriter out, ChessPosition position) throws IOException {
+            out.beginObject();
+            out.name("row").value(position.getRow());
+            out.name("col").value(position.getColumn());
+            out.endObject();
+        }
+
+        @Override
+        public ChessPosition read(JsonReader in) throws IOException {
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return ChessPosition.of(row, col);
+        }
+    }
+
+    static final class MoveAdapter extends TypeAdapter<ChessMove> {
+        private final PositionAdapter positionAdapter = new PositionAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            out.beginObject();
+            if (move.getStartPosition() != null) {
+                out.name("startPosition");
+                positionAdapter.write(out, move.getStartPosition());
+            }
+            if (move.getEndPosition() != null) {
+                out.name("endPosition");
+                positionAdapter.write(out, move.getEndPosition());
+            }
+            if (move.getPromotionPiece() != null) {
+                out.name("promotionPiece").value(move.getPromotionPiece().name());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            ChessPosition start = null;
+            ChessPosition end = null;
+            ChessPiece.PieceType promotion = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "startPosition" -> start = in.peek() == JsonToken.NULL ? skipNull(in) : positionAdapter.read(in);
+                    case "endPosition" -> end = in.peek() == JsonToken.NULL ? skipNull(in) : positionAdapter.read(in);
+                    case "promotionPiece" -> promotion = nextEnum(in, ChessPiece.PieceType.class, null);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new ChessMove(start, end, promotion);
+        }
+    }
+
+    /**
+     * Reads an enum constant by name; null and unknown names give the fallback, as
+     * Gson's own enum adapter does
+     */
+    public static <E extends Enum<E>> E nextEnum(JsonReader in, Class<E> type, E fallback) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return fallback;
+        }
+        String name = in.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    private static <T> T skipNull(JsonReader in) throws IOException {
+        in.nextNull();
+        return null;
+    }
+}
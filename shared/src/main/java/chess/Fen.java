@@ -0,0 +1,240 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation.
+ * <p>
+ * The parser walks the character sequence once, decoding each field in place without
+ * regular expressions or substrings. Only the piece placement and side to move are
+ * required. This game has no castling or en passant, so those fields are checked for
+ * well-formedness and otherwise ignored, and are always written as {@code -}. The
+ * halfmove clock and fullmove number default to 0 and 1 when left off.
+ */
+final class Fen {
+
+    static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    private Fen() {}
+
+    /**
+     * @throws IllegalArgumentException if fen is not a well-formed position
+     */
+    static ChessGame parse(CharSequence fen) {
+        if (fen == null) {
+            throw new IllegalArgumentException("FEN is null");
+        }
+        Cursor cursor = new Cursor(fen);
+
+        ChessBoard board = parseBoard(cursor);
+        cursor.expectSpace();
+
+        ChessGame.TeamColor turn = switch (cursor.next()) {
+            case 'w' -> ChessGame.TeamColor.WHITE;
+            case 'b' -> ChessGame.TeamColor.BLACK;
+            default -> throw cursor.error("side to move must be 'w' or 'b'");
+        };
+
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (cursor.skipSpaces()) {
+            skipCastling(cursor);
+            if (cursor.skipSpaces()) {
+                skipEnPassant(cursor);
+                if (cursor.skipSpaces()) {
+                    halfmoveClock = cursor.number();
+                    if (cursor.skipSpaces()) {
+                        fullmoveNumber = cursor.number();
+                        if (fullmoveNumber < 1) {
+                            throw cursor.error("fullmove number must be at least 1");
+                        }
+                        cursor.skipSpaces();
+                    }
+                }
+            }
+        }
+        if (cursor.hasNext()) {
+            throw cursor.error("unexpected trailing characters");
+        }
+
+        return new ChessGame(board, turn, halfmoveClock, fullmoveNumber);
+    }
+
+    private static ChessBoard parseBoard(Cursor cursor) {
+        ChessBoard board = new ChessBoard();
+        for (int row = 8; row >= 1; row--) {
+            int col = 1;
+            while (col <= 8) {
+                char c = cursor.next();
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    if (col > 9) {
+                        throw cursor.error("rank " + row + " has more than 8 squares");
+                    }
+                    continue;
+                }
+
+                ChessPiece.PieceType type = type(c);
+                if (type == null) {
+                    throw cursor.error("unexpected '" + c + "' in piece placement");
+                }
+                if (type == ChessPiece.PieceType.PAWN && (row == 1 || row == 8)) {
+                    throw cursor.error("pawn on rank " + row);
+                }
+                ChessGame.TeamColor color = c < 'a' ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                board.setPiece(Bitboards.square(row, col), ChessPiece.of(color, type));
+                col++;
+            }
+            if (row > 1 && cursor.next() != '/') {
+                throw cursor.error("rank " + row + " must have exactly 8 squares");
+            }
+        }
+        return board;
+    }
+
+    private static void skipCastling(Cursor cursor) {
+        if (cursor.peek() == '-') {
+            cursor.next();
+            return;
+        }
+        int count = 0;
+        while (cursor.hasNext() && cursor.peek() != ' ') {
+            char c = cursor.next();
+            if (c != 'K' && c != 'Q' && c != 'k' && c != 'q') {
+                throw cursor.error("unexpected '" + c + "' in castling rights");
+            }
+            count++;
+        }
+        if (count == 0 || count > 4) {
+            throw cursor.error("malformed castling rights");
+        }
+    }
+
+    private static void skipEnPassant(Cursor cursor) {
+        char file = cursor.next();
+        if (file == '-') {
+            return;
+        }
+        char rank = cursor.next();
+        if (file < 'a' || file > 'h' || (rank != '3' && rank != '6')) {
+            throw cursor.error("malformed en passant square");
+        }
+    }
+
+    private static ChessPiece.PieceType type(char c) {
+        return switch (c) {
+            case 'K', 'k' -> ChessPiece.PieceType.KING;
+            case 'Q', 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'B', 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'N', 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'R', 'r' -> ChessPiece.PieceType.ROOK;
+            case 'P', 'p' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+    }
+
+    private static char symbol(ChessPiece piece) {
+        char c = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+
+    static String format(ChessGame game) {
+        StringBuilder s = new StringBuilder(90);
+        ChessBoard board = game.getBoard();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.pieceAt(Bitboards.square(row, col));
+                if (piece == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    s.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                s.append(symbol(piece));
+            }
+            if (empty > 0) {
+                s.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                s.append('/');
+            }
+        }
+
+        s.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b");
+        s.append(" - - ").append(game.getHalfmoveClock()).append(' ').append(game.getFullmoveNumber());
+        return s.toString();
+    }
+
+    /**
+     * Read position within the FEN text, reporting errors against the original input
+     */
+    private static final class Cursor {
+        private final CharSequence text;
+        private int index;
+
+        Cursor(CharSequence text) {
+            this.text = text;
+        }
+
+        boolean hasNext() {
+            return index < text.length();
+        }
+
+        char peek() {
+            if (!hasNext()) {
+                throw error("unexpected end of input");
+            }
+            return text.charAt(index);
+        }
+
+        char next() {
+            char c = peek();
+            index++;
+            return c;
+        }
+
+        void expectSpace() {
+            if (!skipSpaces()) {
+                throw error("expected a space");
+            }
+        }
+
+        /**
+         * @return True if at least one space was skipped and another field follows
+         */
+        boolean skipSpaces() {
+            int start = index;
+            while (hasNext() && text.charAt(index) == ' ') {
+                index++;
+            }
+            return index > start && hasNext();
+        }
+
+        int number() {
+            int start = index;
+            int value = 0;
+            while (hasNext() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+                value = value * 10 + (text.charAt(index++) - '0');
+                if (value > 100_000) {
+                    throw error("number out of range");
+                }
+            }
+            if (index == start) {
+                throw error("expected a number");
+            }
+            return value;
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Invalid FEN at index " + index + ": " + message);
+        }
+    }
+}
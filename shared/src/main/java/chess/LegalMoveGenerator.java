@@ -0,0 +1,135 @@
+package chess;
+
+/**
+ * Generates only legal moves, without trying each move out on the board.
+ * <p>
+ * The pieces giving check and the pieces pinned to their own king are worked out once
+ * per position. A check limits every other piece to capturing the checker or blocking
+ * it, a double check leaves only king moves, and a pinned piece may only move along the
+ * line through its king. King moves are tested against the enemy attacks with the king
+ * itself taken off the board, so it cannot hide behind its own square.
+ */
+final class LegalMoveGenerator {
+
+    private LegalMoveGenerator() {}
+
+    /**
+     * Finds the legal moves of a team's pieces
+     *
+     * @param fromMask bitboard of the squares whose pieces should be moved
+     * @param moves    where to add the packed moves, or null to only count them
+     * @param limit    stop once this many moves have been found
+     * @return the number of moves found, at most limit
+     */
+    static int generate(ChessBoard board, ChessGame.TeamColor color, long fromMask,
+                        MoveList moves, int limit) {
+        ChessGame.TeamColor enemy = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK
+                : ChessGame.TeamColor.WHITE;
+        long own = board.occupancy(color);
+        long enemies = board.occupancy(enemy);
+        long occupied = board.occupied();
+        int king = board.kingSquare(color);
+        int found = 0;
+
+        // Without a king nothing can be pinned or checked
+        long checkers = 0L;
+        long pinned = 0L;
+        long evasions = -1L;
+        if (king >= 0) {
+            checkers = board.attackersTo(king, enemy, occupied);
+            pinned = pinnedPieces(board, king, color, enemy);
+            if (checkers != 0) {
+                int checker = Bitboards.first(checkers);
+                evasions = Bitboards.bit(checker) | Bitboards.between(king, checker);
+            }
+
+            if ((fromMask & Bitboards.bit(king)) != 0) {
+                long targets = Bitboards.KING_ATTACKS[king] & ~own;
+                long withoutKing = occupied ^ Bitboards.bit(king);
+                while (targets != 0 && found < limit) {
+                    int to = Bitboards.first(targets);
+                    targets &= targets - 1;
+                    if (board.attackersTo(to, enemy, withoutKing) == 0) {
+                        found += emit(moves, king, to, enemies, false, limit - found);
+                    }
+                }
+            }
+
+            // In double check only the king can move
+            if (Long.bitCount(checkers) > 1) {
+                return found;
+            }
+        }
+
+        long pieces = own & fromMask;
+        if (king >= 0) {
+            pieces &= ~Bitboards.bit(king);
+        }
+        while (pieces != 0 && found < limit) {
+            int from = Bitboards.first(pieces);
+            pieces &= pieces - 1;
+
+            long targets = board.targets(from) & evasions;
+            if ((pinned & Bitboards.bit(from)) != 0) {
+                targets &= Bitboards.line(king, from);
+            }
+
+            boolean pawn = board.pieceAt(from).getPieceType() == ChessPiece.PieceType.PAWN;
+            while (targets != 0 && found < limit) {
+                int to = Bitboards.first(targets);
+                targets &= targets - 1;
+                boolean promotion = pawn && (Bitboards.bit(to) & (Bitboards.RANK_1 | Bitboards.RANK_8)) != 0;
+                found += emit(moves, from, to, enemies, promotion, limit - found);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return bitboard of color's pieces that stand alone between their king and an
+     * enemy rook, bishop or queen on the same line
+     */
+    private static long pinnedPieces(ChessBoard board, int king, ChessGame.TeamColor color,
+                                     ChessGame.TeamColor enemy) {
+        long enemies = board.occupancy(enemy);
+        long queens = board.pieces(enemy, ChessPiece.PieceType.QUEEN);
+
+        // Enemy sliders that would attack the king if only enemy pieces could block them
+        long snipers = (Bitboards.rookAttacks(king, enemies)
+                        & (board.pieces(enemy, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, enemies)
+                        & (board.pieces(enemy, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pinned = 0L;
+        long own = board.occupancy(color);
+        while (snipers != 0) {
+            int sniper = Bitboards.first(snipers);
+            snipers &= snipers - 1;
+
+            long blockers = Bitboards.between(king, sniper) & board.occupied();
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    private static int emit(MoveList moves, int from, int to, long enemies, boolean promotion, int room) {
+        int flags = (enemies & Bitboards.bit(to)) != 0 ? Move.CAPTURE : 0;
+        if (!promotion) {
+            if (moves != null) {
+                moves.add(Move.of(from, to, null, flags));
+            }
+            return 1;
+        }
+
+        int count = Math.min(CalculateMoves.PROMOTIONS.length, room);
+        if (moves != null) {
+            for (int i = 0; i < count; i++) {
+                moves.add(Move.of(from, to, CalculateMoves.PROMOTIONS[i], flags));
+            }
+        }
+        return count;
+    }
+}
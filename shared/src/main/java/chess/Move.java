@@ -0,0 +1,66 @@
+package chess;
+
+/**
+ * Moves packed into an int for the move generator, so that generating moves allocates
+ * nothing. {@link ChessMove} objects are only built at the public API boundary.
+ * <pre>
+ *  bits  0-5   from square
+ *  bits  6-11  to square
+ *  bits 12-14  promotion piece (type ordinal + 1, 0 for none)
+ *  bits 15-18  flags
+ * </pre>
+ */
+final class Move {
+
+    static final int CAPTURE = 1 << 15;
+
+    private static final int FLAGS = 0xF << 15;
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private Move() {}
+
+    static int of(int from, int to, ChessPiece.PieceType promotion, int flags) {
+        int promotionCode = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | to << 6 | promotionCode << 12 | flags;
+    }
+
+    static int from(int move) {
+        return move & 0x3F;
+    }
+
+    static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece type, or null if the move is not a promotion
+     */
+    static ChessPiece.PieceType promotion(int move) {
+        int code = (move >>> 12) & 0x7;
+        return code == 0 ? null : PIECE_TYPES[code - 1];
+    }
+
+    static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    /**
+     * @return the move with its flags cleared, for comparing moves by squares and promotion
+     */
+    static int withoutFlags(int move) {
+        return move & ~FLAGS;
+    }
+
+    static int encode(ChessMove move) {
+        return of(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                move.getPromotionPiece(), 0);
+    }
+
+    static ChessMove toChessMove(int move) {
+        return new ChessMove(Bitboards.position(from(move)), Bitboards.position(to(move)), promotion(move));
+    }
+
+    static String toString(int move) {
+        return toChessMove(move).toString();
+    }
+}
@@ -0,0 +1,71 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A reusable buffer of packed {@link Move}s. Clearing it keeps the backing array, so a
+ * list held across calls stops allocating once it has grown to fit a position.
+ */
+final class MoveList {
+
+    // No legal chess position has more than 218 moves
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private int[] moves;
+    private int size;
+
+    MoveList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[moves.length * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+    int get(int index) {
+        return moves[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return True if the list holds the same move, ignoring flags
+     */
+    boolean contains(int move) {
+        int wanted = Move.withoutFlags(move);
+        for (int i = 0; i < size; i++) {
+            if (Move.withoutFlags(moves[i]) == wanted) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    Collection<ChessMove> toChessMoves() {
+        Collection<ChessMove> chessMoves = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(Move.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+}
@@ -0,0 +1,54 @@
+package chess;
+
+/**
+ * Packs everything {@link ChessGame#unmakeMove(int)} needs to take a move back into a
+ * single int, so that trying a move out costs no allocation.
+ * <pre>
+ *  bits  0-5   from square
+ *  bits  6-11  to square
+ *  bits 12-15  captured piece (piece index + 1, 0 for none)
+ *  bits 16-19  moved piece (piece index + 1)
+ *  bit  20     team whose turn it was
+ *  bits 21-31  reserved for castling rights and the en passant file
+ * </pre>
+ */
+final class MoveUndo {
+
+    private MoveUndo() {}
+
+    static int pack(int from, int to, ChessPiece captured, ChessPiece moved, ChessGame.TeamColor turn) {
+        return from
+                | to << 6
+                | code(captured) << 12
+                | code(moved) << 16
+                | turn.ordinal() << 20;
+    }
+
+    static int from(int undo) {
+        return undo & 0x3F;
+    }
+
+    static int to(int undo) {
+        return (undo >>> 6) & 0x3F;
+    }
+
+    static ChessPiece captured(int undo) {
+        return piece((undo >>> 12) & 0xF);
+    }
+
+    static ChessPiece moved(int undo) {
+        return piece((undo >>> 16) & 0xF);
+    }
+
+    static ChessGame.TeamColor turn(int undo) {
+        return ((undo >>> 20) & 1) == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    private static int code(ChessPiece piece) {
+        return piece == null ? 0 : ChessBoard.pieceIndex(piece) + 1;
+    }
+
+    private static ChessPiece piece(int code) {
+        return code == 0 ? null : ChessPiece.fromIndex(code - 1);
+    }
+}
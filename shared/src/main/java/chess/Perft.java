@@ -0,0 +1,254 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree below a position (perft).
+ * <p>
+ * The counts for well known positions are published, so a mismatch pins down a move
+ * generation bug, and the divide output (nodes below each root move) shows which move
+ * it hides under. Timing the count gives the generator's throughput in nodes per second.
+ * This game has no castling or en passant, so published counts only match up to the
+ * depth where those moves first appear (depth 4 from the starting position).
+ * <p>
+ * Usage: {@code Perft <depth> [--fen <position>] [--divide] [--threads <n>]}, or from the project root
+ * {@code mvn -pl shared compile exec:java -Dexec.args="5 --divide"}
+ */
+public final class Perft {
+
+    private Perft() {}
+
+    /**
+     * Counts the leaf nodes at the given depth below the game's position
+     *
+     * @param game  the position to search from; it is left unchanged
+     * @param depth number of plies to search, at least 0
+     * @return the number of move sequences of exactly depth plies
+     */
+    public static long count(ChessGame game, int depth) {
+        checkDepth(depth);
+        return perft(game, depth, moveLists(depth));
+    }
+
+    /**
+     * Counts leaf nodes like {@link #count(ChessGame, int)}, searching the root moves in
+     * parallel on pool
+     */
+    public static long count(ChessGame game, int depth, ForkJoinPool pool) {
+        checkDepth(depth);
+        if (depth == 0) {
+            return 1;
+        }
+        long nodes = 0;
+        for (long rootNodes : divide(game, depth, pool).values()) {
+            nodes += rootNodes;
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaf nodes below each legal root move
+     *
+     * @param game  the position to search from; it is left unchanged
+     * @param depth number of plies to search including the root move, at least 1
+     * @param pool  pool to search the root moves in parallel on, or null to search them
+     *              one after another on the calling thread
+     * @return node counts keyed by root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth, ForkJoinPool pool) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1");
+        }
+
+        MoveList rootMoves = new MoveList();
+        game.generateLegalMoves(rootMoves);
+        long[] counts;
+        if (pool == null) {
+            counts = new long[rootMoves.size()];
+            MoveList[] lists = moveLists(depth - 1);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int undo = game.makeMove(rootMoves.get(i));
+                counts[i] = perft(game, depth - 1, lists);
+                game.unmakeMove(undo);
+            }
+        } else {
+            counts = pool.invoke(new RootSplit(game, rootMoves, depth));
+        }
+
+        Map<ChessMove, Long> divide = new LinkedHashMap<>();
+        for (int i = 0; i < rootMoves.size(); i++) {
+            divide.put(Move.toChessMove(rootMoves.get(i)), counts[i]);
+        }
+        return divide;
+    }
+
+    private static long perft(ChessGame game, int depth, MoveList[] lists) {
+        if (depth == 0) {
+            return 1;
+        }
+
+        // Every legal move at the last ply is a leaf, so count them without playing them
+        if (depth == 1) {
+            return LegalMoveGenerator.generate(game.getBoard(), game.getTeamTurn(), -1L, null,
+                    Integer.MAX_VALUE);
+        }
+
+        MoveList moves = lists[depth];
+        game.generateLegalMoves(moves);
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = game.makeMove(moves.get(i));
+            nodes += perft(game, depth - 1, lists);
+            game.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    /**
+     * One move list per remaining depth, so recursion never clobbers a caller's moves
+     */
+    private static MoveList[] moveLists(int depth) {
+        MoveList[] lists = new MoveList[depth + 1];
+        for (int i = 0; i <= depth; i++) {
+            lists[i] = new MoveList();
+        }
+        return lists;
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("Perft depth must not be negative");
+        }
+    }
+
+    /**
+     * Searches each root move as its own task on a private copy of the game
+     */
+    private static final class RootSplit extends RecursiveTask<long[]> {
+        private final ChessGame game;
+        private final MoveList rootMoves;
+        private final int depth;
+
+        RootSplit(ChessGame game, MoveList rootMoves, int depth) {
+            this.game = game;
+            this.rootMoves = rootMoves;
+            this.depth = depth;
+        }
+
+        @Override
+        protected long[] compute() {
+            List<RootMove> tasks = new ArrayList<>(rootMoves.size());
+            for (int i = 0; i < rootMoves.size(); i++) {
+                tasks.add(new RootMove(new ChessGame(game), rootMoves.get(i), depth));
+            }
+            invokeAll(tasks);
+
+            long[] counts = new long[tasks.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = tasks.get(i).join();
+            }
+            return counts;
+        }
+    }
+
+    private static final class RootMove extends RecursiveTask<Long> {
+        private final ChessGame game;
+        private final int move;
+        private final int depth;
+
+        RootMove(ChessGame game, int move, int depth) {
+            this.game = game;
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            game.makeMove(move);
+            return perft(game, depth - 1, moveLists(depth - 1));
+        }
+    }
+
+    public static void main(String[] args) {
+        int depth = -1;
+        boolean divide = false;
+        int threads = 1;
+        String fen = Fen.START_POSITION;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--divide" -> divide = true;
+                case "--threads", "--fen" -> {
+                    if (i + 1 == args.length) {
+                        usage();
+                        return;
+                    }
+                    if (args[i].equals("--fen")) {
+                        fen = args[++i];
+                    } else {
+                        threads = Integer.parseInt(args[++i]);
+                    }
+                }
+                default -> depth = Integer.parseInt(args[i]);
+            }
+        }
+        if (depth < 1 || threads < 1) {
+            usage();
+            return;
+        }
+
+        ChessGame game = ChessGame.fromFen(fen);
+        ForkJoinPool pool = threads > 1 ? new ForkJoinPool(threads) : null;
+        try {
+            long start = System.nanoTime();
+            long nodes = 0;
+            if (divide) {
+                for (Map.Entry<ChessMove, Long> entry : divide(game, depth, pool).entrySet()) {
+                    System.out.println(uci(entry.getKey()) + ": " + entry.getValue());
+                    nodes += entry.getValue();
+                }
+                System.out.println();
+            } else {
+                nodes = pool == null ? count(game, depth) : count(game, depth, pool);
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.println("Depth:      " + depth);
+            System.out.println("Nodes:      " + nodes);
+            System.out.printf("Time:       %.3f s%n", elapsed / 1e9);
+            System.out.printf("Nodes/sec:  %.0f%n", nodes / (elapsed / 1e9));
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Writes a move the way other engines print their divide output, e.g. e7e8q
+     */
+    private static String uci(ChessMove move) {
+        StringBuilder s = new StringBuilder(5);
+        for (ChessPosition position : new ChessPosition[]{ move.getStartPosition(), move.getEndPosition() }) {
+            s.append((char) ('a' + position.getColumn() - 1)).append(position.getRow());
+        }
+        if (move.getPromotionPiece() != null) {
+            s.append(switch (move.getPromotionPiece()) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                default -> 'n';
+            });
+        }
+        return s.toString();
+    }
+
+    private static void usage() {
+        System.out.println("Usage: Perft <depth> [--fen <position>] [--divide] [--threads <n>]");
+    }
+}
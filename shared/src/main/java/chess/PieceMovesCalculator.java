@@ -21,187 +21,100 @@ public interface PieceMovesCalculator {
 final class KingMovesCalculator implements PieceMovesCalculator {
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position) {
-        int[][] kingDirections = {{ 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 },
-                                    { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 }};
-        return CalculateMoves.calculateMoves(board, position, 1, kingDirections);
+        int square = Bitboards.square(position);
+        return CalculateMoves.calculateMoves(board, position, Bitboards.KING_ATTACKS[square]);
     }
 }
 
 final class QueenMovesCalculator implements PieceMovesCalculator {
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position) {
-        int[][] queenDirections = {{ 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 },
-                                    { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 }};
-        return CalculateMoves.calculateMoves(board, position, 8, queenDirections);
+        int square = Bitboards.square(position);
+        return CalculateMoves.calculateMoves(board, position, Bitboards.queenAttacks(square, board.occupied()));
     }
 }
 
 final class BishopMovesCalculator implements PieceMovesCalculator {
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position) {
-        int[][] bishopDirections = {{ 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 }};
-        return CalculateMoves.calculateMoves(board, position, 8, bishopDirections);
+        int square = Bitboards.square(position);
+        return CalculateMoves.calculateMoves(board, position, Bitboards.bishopAttacks(square, board.occupied()));
     }
 }
 
 final class KnightMovesCalculator implements PieceMovesCalculator {
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position) {
-        int[][] knightDirections = {{ 2, -1 }, { 2, 1 }, { 1, 2 }, { -1, 2 },
-                                    { -2, 1 }, { -2, -1 }, { -1, -2 }, { 1, -2 }};
-        return CalculateMoves.calculateMoves(board, position, 1, knightDirections);
+        int square = Bitboards.square(position);
+        return CalculateMoves.calculateMoves(board, position, Bitboards.KNIGHT_ATTACKS[square]);
     }
 }
 
 final class RookMovesCalculator implements PieceMovesCalculator {
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position) {
-        int[][] rookDirections = {{ 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 }};
-        return CalculateMoves.calculateMoves(board, position, 8, rookDirections);
+        int square = Bitboards.square(position);
+        return CalculateMoves.calculateMoves(board, position, Bitboards.rookAttacks(square, board.occupied()));
     }
 }
 
 final class PawnMovesCalculator implements PieceMovesCalculator {
     @Override
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition position) {
-        int[][] whitePawnDirections = {{1,0}};
-        int[][] whitePawnCapture = {{1,-1}, {1,1}};
-        int[][] blackPawnDirections = {{-1,0}};
-        int[][] blackPawnCapture = {{-1,-1}, {-1,1}};
-        Collection<ChessMove> moves = new ArrayList<>();
-        ChessPiece currPiece = board.getPiece(position);
-        if (currPiece.getTeamColor() == ChessGame.TeamColor.WHITE) {
-            if (position.getRow() == 2) {
-                moves = CalculateMoves.calculateMoves(board, position, 2, whitePawnDirections);
-            } else {
-                moves = CalculateMoves.calculateMoves(board, position, 1, whitePawnDirections);
-            }
-            moves.addAll(CalculateMoves.calculateMoves(board, position, 1, whitePawnCapture));
-        } else if (currPiece.getTeamColor() == ChessGame.TeamColor.BLACK) {
-            if (position.getRow() == 7) {
-                moves = CalculateMoves.calculateMoves(board, position, 2, blackPawnDirections);
-            } else {
-                moves = CalculateMoves.calculateMoves(board, position, 1, blackPawnDirections);
-            }
-            moves.addAll(CalculateMoves.calculateMoves(board, position, 1, blackPawnCapture));
-        }
-        return moves;
+        int square = Bitboards.square(position);
+        ChessGame.TeamColor color = board.getPiece(position).getTeamColor();
+        ChessGame.TeamColor enemy = color == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK
+                : ChessGame.TeamColor.WHITE;
+
+        long pushes = Bitboards.pawnPushes(color, square, ~board.occupied());
+        long captures = Bitboards.PAWN_ATTACKS[color.ordinal()][square] & board.occupancy(enemy);
+        return CalculateMoves.calculatePawnMoves(position, pushes | captures);
     }
 }
-class PawnMoveCheck {
-
-    static boolean pawnMoveChecker(
-            Collection<ChessMove> moves,
-            ChessBoard board,
-            ChessPosition piecePosition,
-            ChessPosition positionToCheck) {
-
-        // Bounds check first
-        if (!isInBounds(positionToCheck)) {
-            return false;
-        }
-
-        ChessPiece movingPiece = board.getPiece(piecePosition);
-        ChessPiece targetPiece = board.getPiece(positionToCheck);
-
-        boolean sameColumn = piecePosition.getColumn() == positionToCheck.getColumn();
-        boolean isPromotionRow = positionToCheck.getRow() == 1 || positionToCheck.getRow() == 8;
-
-        // Forward move (no capture)
-        if (sameColumn) {
-            if (targetPiece != null) {
-                return false;
-            }
-
-            return addPawnMove(moves, piecePosition, positionToCheck, isPromotionRow);
-        }
-        // Diagonal capture
-
-        if (targetPiece == null) {
-            return false;
-        }
-
-        if (movingPiece.getTeamColor() == targetPiece.getTeamColor()) {
-            return false;
-        }
-
-        return addPawnMove(moves, piecePosition, positionToCheck, isPromotionRow);
-    }
 
-    static boolean isInBounds(ChessPosition pos) {
-        return pos.getRow() >= 1 && pos.getRow() <= 8 &&
-                pos.getColumn() >= 1 && pos.getColumn() <= 8;
-    }
-
-    private static boolean addPawnMove(
-            Collection<ChessMove> moves,
-            ChessPosition from,
-            ChessPosition to,
-            boolean isPromotion) {
-
-        if (!isPromotion) {
-            return moves.add(new ChessMove(from, to, null));
-        }
-
-        ChessPiece.PieceType[] promotions = {
-                ChessPiece.PieceType.QUEEN,
-                ChessPiece.PieceType.ROOK,
-                ChessPiece.PieceType.BISHOP,
-                ChessPiece.PieceType.KNIGHT
-        };
+class CalculateMoves {
 
-        for (ChessPiece.PieceType type : promotions) {
-            moves.add(new ChessMove(from, to, type));
+    static final ChessPiece.PieceType[] PROMOTIONS = {
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT
+    };
+
+    /**
+     * Turns an attack set into moves, dropping squares held by the moving piece's own team
+     */
+    static Collection<ChessMove> calculateMoves(ChessBoard board, ChessPosition position, long attacks) {
+        ChessGame.TeamColor color = board.getPiece(position).getTeamColor();
+        long targets = attacks & ~board.occupancy(color);
+        Collection<ChessMove> moves = new ArrayList<>(Long.bitCount(targets));
+
+        while (targets != 0) {
+            int to = Bitboards.first(targets);
+            targets &= targets - 1;
+            moves.add(new ChessMove(position, Bitboards.position(to), null));
         }
-
-        return true;
+        return moves;
     }
-}
 
-class MoveCheck {
-    static boolean moveChecker(
-            Collection<ChessMove> moves, ChessBoard board, ChessPosition piecePosition, ChessPosition positionToCheck) {
-
-        if ((positionToCheck.getColumn() <= 8 && positionToCheck.getColumn() >= 1) &&
-                (positionToCheck.getRow() <= 8 && positionToCheck.getRow() >= 1)) {
+    /**
+     * Turns pawn targets into moves, expanding moves onto the last rank into each promotion
+     */
+    static Collection<ChessMove> calculatePawnMoves(ChessPosition position, long targets) {
+        Collection<ChessMove> moves = new ArrayList<>();
 
-            ChessPiece targetPiece = board.getPiece(positionToCheck);
-            ChessPiece movingPiece = board.getPiece(piecePosition);
+        while (targets != 0) {
+            int to = Bitboards.first(targets);
+            targets &= targets - 1;
+            ChessPosition endPosition = Bitboards.position(to);
 
-            if (targetPiece == null) {
-                moves.add(new ChessMove(piecePosition, positionToCheck, null));
-                return true; // keep going
-            } else if (movingPiece.getTeamColor() != targetPiece.getTeamColor()) {
-                moves.add(new ChessMove(piecePosition, positionToCheck, null));
-                return false; // captured enemy, stop in this direction
-            } else {
-                return false; // own piece blocks
+            if ((Bitboards.bit(to) & (Bitboards.RANK_1 | Bitboards.RANK_8)) == 0) {
+                moves.add(new ChessMove(position, endPosition, null));
+                continue;
             }
-        }
-
-        return false;
-    }
-}
-
-class CalculateMoves {
-    static Collection<ChessMove> calculateMoves(
-            ChessBoard board, ChessPosition position, int maxSteps, int[][] direct) {
-        Collection<ChessMove> moves = new ArrayList<>();
-
-        for (int[] d : direct) {
-            int currR = d[0], currC = d[1];
-            for (int step = 1; step <= maxSteps; step++) {
-                ChessPosition currMove = new ChessPosition(
-                        position.getRow()+(currR*step), position.getColumn()+(currC*step));
-                boolean continueDirection;
-                if (board.getPiece(position).getPieceType() == ChessPiece.PieceType.PAWN) {
-                    continueDirection = PawnMoveCheck.pawnMoveChecker(moves, board, position, currMove);
-                } else {
-                    continueDirection = MoveCheck.moveChecker(moves, board, position, currMove);
-                }
-                if (!continueDirection) {
-                    break;
-                }
+            for (ChessPiece.PieceType type : PROMOTIONS) {
+                moves.add(new ChessMove(position, endPosition, type));
             }
         }
         return moves;
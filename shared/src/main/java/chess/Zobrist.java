@@ -0,0 +1,47 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key of every
+ * piece on its square, plus the side-to-move key when black is to move, so moving a
+ * piece updates the key with two or three XORs.
+ * <p>
+ * The keys come from a fixed seed, so a position has the same key in every JVM and keys
+ * can be stored or compared across servers.
+ */
+final class Zobrist {
+
+    private static final long SEED = 240L;
+
+    // Indexed by piece index (see ChessBoard.pieceIndex) and square
+    private static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long BLACK_TO_MOVE;
+
+    // Not used yet: reserved so castling rights and the en passant file can be folded in
+    // without changing the keys of existing positions
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < squares.length; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+            EN_PASSANT_FILE[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {}
+
+    static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex][square];
+    }
+}
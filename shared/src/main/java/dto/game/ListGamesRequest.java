@@ -1,3 +1,26 @@
 package dto.game;
 
-public record ListGamesRequest(String authToken) {}
\ No newline at end of file
+/**
+ * A lobby listing. With only the auth token set it asks for every game; setting any other
+ * field asks for one page of the games that match, in gameID order.
+ *
+ * @param after return games with a gameID greater than this, the nextCursor of the previous page
+ * @param limit the most games to return; the server picks a default when null
+ * @param openSeats only games with a free seat
+ * @param mine only games the caller is playing in
+ * @param status only games that are still going or only finished ones
+ * @param namePrefix only games whose name starts with this
+ */
+public record ListGamesRequest(String authToken, Integer after, Integer limit, boolean openSeats, boolean mine,
+                               GameStatus status, String namePrefix) {
+
+    public enum GameStatus { ACTIVE, FINISHED }
+
+    public ListGamesRequest(String authToken) {
+        this(authToken, null, null, false, false, null, null);
+    }
+
+    public boolean paged() {
+        return after != null || limit != null || openSeats || mine || status != null || namePrefix != null;
+    }
+}
@@ -2,4 +2,13 @@ package dto.game;
 
 import java.util.List;
 
-public record ListGamesResult(List<GameInfo> games) {}
\ No newline at end of file
+/**
+ * @param nextCursor the after value for the next page, or null if this is the last page or
+ *                   the listing was not paged
+ */
+public record ListGamesResult(List<GameInfo> games, Integer nextCursor) {
+
+    public ListGamesResult(List<GameInfo> games) {
+        this(games, null);
+    }
+}
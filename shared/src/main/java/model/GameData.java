@@ -1,4 +1,21 @@
 package model;
 import chess.ChessGame;
 
-public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {}
+public record GameData(int gameID, String whiteUsername, String blackUsername, String gameName, ChessGame game) {
+
+    /**
+     * @return the player in the given seat, or null if it is free
+     */
+    public String username(ChessGame.TeamColor color) {
+        return color == ChessGame.TeamColor.WHITE ? whiteUsername : blackUsername;
+    }
+
+    /**
+     * @return a copy with the player in the given seat
+     */
+    public GameData withPlayer(ChessGame.TeamColor color, String username) {
+        return color == ChessGame.TeamColor.WHITE
+                ? new GameData(gameID, username, blackUsername, gameName, game)
+                : new GameData(gameID, whiteUsername, username, gameName, game);
+    }
+}
@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * Which games to list and how many, for keyset paging through the lobby in gameID order.
+ * Null filters match everything.
+ *
+ * @param afterGameID only games with a greater gameID
+ * @param player only games this user plays in
+ * @param gameOver only finished games when true, only unfinished ones when false
+ * @param namePrefix only games whose name starts with this, ignoring case as MySQL's LIKE
+ * does under the default collation, so the SQL store and the filter here agree
+ */
+public record GameQuery(int afterGameID, int limit, boolean openSeats, String player, Boolean gameOver,
+                        String namePrefix) {
+
+    public boolean matches(GameData game) {
+        if (game.gameID() <= afterGameID) {
+            return false;
+        }
+        if (openSeats && game.whiteUsername() != null && game.blackUsername() != null) {
+            return false;
+        }
+        if (player != null && !player.equals(game.whiteUsername()) && !player.equals(game.blackUsername())) {
+            return false;
+        }
+        if (gameOver != null && (game.game() != null && game.game().isGameOver()) != gameOver) {
+            return false;
+        }
+        return namePrefix == null || (game.gameName() != null
+                && game.gameName().regionMatches(true, 0, namePrefix, 0, namePrefix.length()));
+    }
+}
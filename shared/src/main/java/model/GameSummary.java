@@ -0,0 +1,6 @@
+package model;
+
+/**
+ * A game as the lobby shows it: everything but the game state
+ */
+public record GameSummary(int gameID, String whiteUsername, String blackUsername, String gameName) {}
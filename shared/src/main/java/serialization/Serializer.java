@@ -0,0 +1,25 @@
+package serialization;
+
+import chess.ChessTypeAdapters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import websocket.MessageTypeAdapters;
+
+/**
+ * The Gson instance shared by the server and client. It has the streaming adapters for
+ * the chess types and websocket messages registered, and is thread-safe, so there is no
+ * need to build another.
+ */
+public final class Serializer {
+
+    public static final Gson GSON = create();
+
+    private Serializer() {}
+
+    private static Gson create() {
+        GsonBuilder builder = new GsonBuilder();
+        ChessTypeAdapters.register(builder);
+        MessageTypeAdapters.register(builder);
+        return builder.create();
+    }
+}
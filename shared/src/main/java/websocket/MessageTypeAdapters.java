@@ -0,0 +1,229 @@
+package websocket;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessTypeAdapters;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import websocket.commands.ConnectCommand;
+import websocket.commands.LeaveCommand;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.ResignCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+
+/**
+ * Streaming Gson adapters for the websocket commands and server messages.
+ * <p>
+ * Each adapter covers its whole class hierarchy. Reading goes through the object once,
+ * holding on to every known field until the end, and then builds the subclass named by
+ * the type field (commandType or serverMessageType), wherever it appeared. The JSON is
+ * the same as the reflective form, so {@code fromJson(json, UserGameCommand.class)}
+ * returns a {@link MakeMoveCommand} for a MAKE_MOVE command, and so on. Asking for a
+ * subclass works too, as long as the JSON names that subclass.
+ */
+public final class MessageTypeAdapters {
+
+    private MessageTypeAdapters() {}
+
+    /**
+     * Registers the command and message adapters. The chess adapters must be registered
+     * on the builder too, since messages carry moves and games.
+     */
+    public static GsonBuilder register(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapterFactory(new CommandAdapterFactory())
+                .registerTypeAdapterFactory(new MessageAdapterFactory());
+    }
+
+    private static final class CommandAdapterFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!UserGameCommand.class.isAssignableFrom(type.getRawType())) {
+                return null;
+            }
+            return forType(new CommandAdapter(gson.getAdapter(ChessMove.class)), (Class<T>) type.getRawType());
+        }
+    }
+
+    private static final class MessageAdapterFactory implements TypeAdapterFactory {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (!ServerMessage.class.isAssignableFrom(type.getRawType())) {
+                return null;
+            }
+            return forType(new MessageAdapter(gson.getAdapter(ChessGame.class)), (Class<T>) type.getRawType());
+        }
+    }
+
+    /**
+     * Fits an adapter for a whole hierarchy to one class in it. Writing goes straight
+     * through. Reading as a subclass checks that the JSON named that subclass, so asking
+     * for a MakeMoveCommand gets one or a JsonParseException, never something the caller
+     * can't cast.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> TypeAdapter<T> forType(TypeAdapter<?> adapter, Class<T> type) {
+        TypeAdapter<Object> hierarchy = (TypeAdapter<Object>) adapter;
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                hierarchy.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                Object value = hierarchy.read(in);
+                if (!type.isInstance(value)) {
+                    throw new JsonParseException("Expected " + type.getSimpleName() + " but the JSON is a "
+                            + value.getClass().getSimpleName());
+                }
+                return type.cast(value);
+            }
+        }.nullSafe();
+    }
+
+    private static final class CommandAdapter extends TypeAdapter<UserGameCommand> {
+        private final TypeAdapter<ChessMove> moveAdapter;
+
+        CommandAdapter(TypeAdapter<ChessMove> moveAdapter) {
+            this.moveAdapter = moveAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, UserGameCommand command) throws IOException {
+            out.beginObject();
+            if (command.getCommandType() != null) {
+                out.name("commandType").value(command.getCommandType().name());
+            }
+            if (command.getAuthToken() != null) {
+                out.name("authToken").value(command.getAuthToken());
+            }
+            if (command.getGameID() != null) {
+                out.name("gameID").value(command.getGameID());
+            }
+            if (command instanceof MakeMoveCommand makeMove && makeMove.getMove() != null) {
+                out.name("move");
+                moveAdapter.write(out, makeMove.getMove());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public UserGameCommand read(JsonReader in) throws IOException {
+            UserGameCommand.CommandType commandType = null;
+            String authToken = null;
+            Integer gameID = null;
+            ChessMove move = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "commandType" -> commandType =
+                            ChessTypeAdapters.nextEnum(in, UserGameCommand.CommandType.class, null);
+                    case "authToken" -> authToken = nextString(in);
+                    case "gameID" -> gameID = nextInteger(in);
+                    case "move" -> move = moveAdapter.read(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (commandType == null) {
+                return new UserGameCommand(null, authToken, gameID);
+            }
+            return switch (commandType) {
+                case CONNECT -> new ConnectCommand(authToken, gameID);
+                case MAKE_MOVE -> new MakeMoveCommand(authToken, gameID, move);
+                case LEAVE -> new LeaveCommand(authToken, gameID);
+                case RESIGN -> new ResignCommand(authToken, gameID);
+            };
+        }
+    }
+
+    private static final class MessageAdapter extends TypeAdapter<ServerMessage> {
+        private final TypeAdapter<ChessGame> gameAdapter;
+
+        MessageAdapter(TypeAdapter<ChessGame> gameAdapter) {
+            this.gameAdapter = gameAdapter;
+        }
+
+        @Override
+        public void write(JsonWriter out, ServerMessage message) throws IOException {
+            out.beginObject();
+            if (message.getServerMessageType() != null) {
+                out.name("serverMessageType").value(message.getServerMessageType().name());
+            }
+            if (message instanceof LoadGameMessage loadGame && loadGame.getGame() != null) {
+                out.name("game");
+                gameAdapter.write(out, loadGame.getGame());
+            } else if (message instanceof NotificationMessage notification
+                    && notification.getNotificationMessage() != null) {
+                out.name("message").value(notification.getNotificationMessage());
+            } else if (message instanceof ErrorMessage error && error.getErrorMessage() != null) {
+                out.name("errorMessage").value(error.getErrorMessage());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ServerMessage read(JsonReader in) throws IOException {
+            ServerMessage.ServerMessageType messageType = null;
+            ChessGame game = null;
+            String message = null;
+            String errorMessage = null;
+
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "serverMessageType" -> messageType =
+                            ChessTypeAdapters.nextEnum(in, ServerMessage.ServerMessageType.class, null);
+                    case "game" -> game = gameAdapter.read(in);
+                    case "message" -> message = nextString(in);
+                    case "errorMessage" -> errorMessage = nextString(in);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (messageType == null) {
+                return new ServerMessage(null);
+            }
+            return switch (messageType) {
+                case LOAD_GAME -> new LoadGameMessage(game);
+                case NOTIFICATION -> new NotificationMessage(message);
+                case ERROR -> new ErrorMessage(errorMessage);
+            };
+        }
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Integer nextInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+}
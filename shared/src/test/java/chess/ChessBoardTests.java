@@ -0,0 +1,38 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessBoardTests {
+
+    private static final ChessPiece WHITE_ROOK = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+
+    @Test
+    @DisplayName("Adding a piece updates the bitboard index")
+    public void addPieceIndexes() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(3, 4), WHITE_ROOK);
+
+        Assertions.assertEquals(WHITE_ROOK, board.getPiece(new ChessPosition(3, 4)));
+        Assertions.assertEquals(Bitboards.bit(Bitboards.square(3, 4)),
+                board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(board.pieces(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK), board.occupied());
+    }
+
+    @Test
+    @DisplayName("Off-board positions are rejected instead of wrapping")
+    public void offBoardRejected() {
+        ChessBoard board = new ChessBoard();
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> board.addPiece(new ChessPosition(2, 0), WHITE_ROOK));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> board.addPiece(new ChessPosition(1, 9), WHITE_ROOK));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> board.addPiece(new ChessPosition(0, 1), WHITE_ROOK));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> board.addPiece(new ChessPosition(9, 8), WHITE_ROOK));
+        Assertions.assertEquals(0L, board.occupied());
+    }
+}
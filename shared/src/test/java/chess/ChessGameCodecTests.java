@@ -0,0 +1,141 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ChessGameCodecTests {
+
+    @Test
+    @DisplayName("Round trip keeps the position, flags and counters")
+    public void roundTrip() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R b - - 7 23");
+        game.setGameOver(true);
+
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(game.toFen(), decoded.toFen());
+        Assertions.assertTrue(decoded.isGameOver());
+    }
+
+    @Test
+    @DisplayName("Repetition history is rebuilt from the moves that led to the position")
+    public void history() throws InvalidMoveException {
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null),
+        };
+        List<ChessMove> moves = new ArrayList<>(List.of(
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null),
+                new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null)));
+        for (int i = 0; i < 7; i++) {
+            moves.add(shuffle[i % 4]);
+        }
+        ChessGame game = new ChessGame();
+        List<Integer> log = new ArrayList<>();
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+            log.add(ChessGameCodec.encodeMove(move));
+        }
+
+        byte[] encoded = ChessGameCodec.encode(game);
+        Assertions.assertEquals(ChessGameCodec.encode(new ChessGame()).length, encoded.length);
+
+        ChessGame decoded = ChessGameCodec.decode(encoded);
+        ChessGameCodec.rebuildHistory(decoded, log);
+        Assertions.assertArrayEquals(game.positionHistory(), decoded.positionHistory());
+
+        decoded.makeMove(shuffle[3]);
+        Assertions.assertTrue(decoded.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Rebuilding stops at a move that doesn't fit the position")
+    public void historyFromBadLog() throws InvalidMoveException {
+        ChessMove knightOut = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+        ChessGame game = new ChessGame();
+        game.makeMove(knightOut);
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+        ChessMove wrong = new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null);
+        ChessGameCodec.rebuildHistory(decoded, List.of(ChessGameCodec.encodeMove(knightOut),
+                ChessGameCodec.encodeMove(wrong)));
+
+        Assertions.assertArrayEquals(new long[] {decoded.positionKey()}, decoded.positionHistory());
+    }
+
+    @Test
+    @DisplayName("History stored by older versions is still read")
+    public void storedHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        long[] history = game.positionHistory();
+
+        byte[] encoded = ChessGameCodec.encode(game);
+        ByteBuffer legacy = ByteBuffer.allocate(encoded.length + 3 + history.length * Long.BYTES).put(encoded);
+        legacy.put((byte) 2).putShort((short) (history.length * Long.BYTES));
+        for (long key : history) {
+            legacy.putLong(key);
+        }
+
+        Assertions.assertArrayEquals(history, ChessGameCodec.decode(legacy.array()).positionHistory());
+    }
+
+    @Test
+    @DisplayName("Moves round trip through their packed form")
+    public void moves() {
+        ChessMove quiet = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove promotion = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.KNIGHT);
+
+        Assertions.assertEquals(quiet, ChessGameCodec.decodeMove(ChessGameCodec.encodeMove(quiet)));
+        Assertions.assertEquals(promotion, ChessGameCodec.decodeMove(ChessGameCodec.encodeMove(promotion)));
+        Assertions.assertTrue(ChessGameCodec.encodeMove(promotion) <= Short.MAX_VALUE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decodeMove(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decodeMove(7 << 12));
+    }
+
+    @Test
+    @DisplayName("Encoded games stay small")
+    public void size() {
+        Assertions.assertTrue(ChessGameCodec.encode(new ChessGame()).length < 64);
+    }
+
+    @Test
+    @DisplayName("Unknown extensions are skipped")
+    public void unknownExtension() {
+        byte[] encoded = ChessGameCodec.encode(new ChessGame());
+        byte[] extended = Arrays.copyOf(encoded, encoded.length + 5);
+        extended[encoded.length] = 99;
+        extended[encoded.length + 2] = 2;
+
+        Assertions.assertEquals(new ChessGame(), ChessGameCodec.decode(extended));
+    }
+
+    @Test
+    @DisplayName("Malformed data is rejected")
+    public void malformed() {
+        byte[] encoded = ChessGameCodec.encode(new ChessGame());
+
+        byte[] wrongVersion = encoded.clone();
+        wrongVersion[0] = 2;
+        byte[] badPiece = encoded.clone();
+        badPiece[10] = (byte) 0xFF;
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(new byte[10]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(wrongVersion));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(badPiece));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> ChessGameCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameDrawTests {
+
+    @Test
+    @DisplayName("Threefold repetition after knights return home twice")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertFalse(game.isThreefoldRepetition());
+            play(game, 1, 7, 3, 6);
+            play(game, 8, 7, 6, 6);
+            play(game, 3, 6, 1, 7);
+            play(game, 6, 6, 8, 7);
+        }
+
+        Assertions.assertTrue(game.isThreefoldRepetition());
+    }
+
+    @Test
+    @DisplayName("Pawn move clears the repetition history")
+    public void pawnMoveResetsHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+
+        play(game, 1, 7, 3, 6);
+        play(game, 8, 7, 6, 6);
+        play(game, 3, 6, 1, 7);
+        play(game, 6, 6, 8, 7);
+        Assertions.assertEquals(4, game.getHalfmoveClock());
+
+        play(game, 2, 5, 4, 5);
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+
+        play(game, 8, 7, 6, 6);
+        play(game, 1, 7, 3, 6);
+        play(game, 6, 6, 8, 7);
+        play(game, 3, 6, 1, 7);
+        play(game, 8, 7, 6, 6);
+        Assertions.assertFalse(game.isThreefoldRepetition());
+        Assertions.assertFalse(game.isFiftyMoveRule());
+    }
+
+    @Test
+    @DisplayName("Fifty-move rule after 100 quiet plies")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+
+        for (int i = 0; i < 25; i++) {
+            Assertions.assertFalse(game.isFiftyMoveRule());
+            play(game, 1, 7, 3, 6);
+            play(game, 8, 7, 6, 6);
+            play(game, 3, 6, 1, 7);
+            play(game, 6, 6, 8, 7);
+        }
+
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertTrue(game.isFiftyMoveRule());
+    }
+
+    private static void play(ChessGame game, int fromRow, int fromCol, int toRow, int toCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null));
+    }
+}
@@ -0,0 +1,70 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start position matches a new game")
+    public void startPosition() {
+        ChessGame game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1", new ChessGame().toFen());
+    }
+
+    @Test
+    @DisplayName("Round trip keeps side to move and counters")
+    public void roundTrip() {
+        String fen = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 12 40";
+        ChessGame game = ChessGame.fromFen(fen);
+
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertEquals(12, game.getHalfmoveClock());
+        Assertions.assertEquals(40, game.getFullmoveNumber());
+        Assertions.assertEquals(fen, game.toFen());
+    }
+
+    @Test
+    @DisplayName("Counters follow played moves")
+    public void countersAfterMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        Assertions.assertEquals("rnbqkb1r/pppppppp/5n2/8/4P3/8/PPPP1PPP/RNBQKBNR w - - 1 2", game.toFen());
+    }
+
+    @Test
+    @DisplayName("Optional fields default when left off")
+    public void shortForm() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/4K3 w");
+
+        Assertions.assertEquals(0, game.getHalfmoveClock());
+        Assertions.assertEquals(1, game.getFullmoveNumber());
+        Assertions.assertEquals(6, Perft.count(game, 1));
+    }
+
+    @Test
+    @DisplayName("Malformed FEN is rejected")
+    public void malformed() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBN w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e5 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1 extra",
+                "rnbqkbnP/pppppppp/8/8/8/8/PPPPPPP1/RNBQKBNR w",
+        };
+        for (String fen : invalid) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(null));
+    }
+}
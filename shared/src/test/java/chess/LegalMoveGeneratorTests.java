@@ -0,0 +1,104 @@
+package chess;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class LegalMoveGeneratorTests {
+
+    private static final ChessGame.TeamColor WHITE = ChessGame.TeamColor.WHITE;
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null);
+    }
+
+    /**
+     * The legal moves found the slow way: every pseudo-legal move that doesn't leave the
+     * mover's king attacked
+     */
+    private static Set<ChessMove> bruteForce(ChessGame game, ChessGame.TeamColor color) {
+        Set<ChessMove> legal = new HashSet<>();
+        ChessBoard board = game.getBoard();
+        for (int square = 0; square < 64; square++) {
+            ChessPiece piece = board.pieceAt(square);
+            if (piece == null || piece.getTeamColor() != color) {
+                continue;
+            }
+            for (ChessMove candidate : piece.pieceMoves(board, Bitboards.position(square))) {
+                int undo = game.makeMove(Bitboards.square(candidate.getStartPosition()),
+                        Bitboards.square(candidate.getEndPosition()), candidate.getPromotionPiece());
+                if (!game.isInCheck(color)) {
+                    legal.add(candidate);
+                }
+                game.unmakeMove(undo);
+            }
+        }
+        return legal;
+    }
+
+    @Test
+    @DisplayName("Matches trying every pseudo-legal move out")
+    public void matchesBruteForce() {
+        String[] positions = {
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+                "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+                "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w - - 0 1",
+                "4k3/8/8/8/1b6/8/3P4/4K2r w - - 0 1",
+        };
+        for (String fen : positions) {
+            ChessGame game = TestBoards.game(fen);
+            for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+                Assertions.assertEquals(bruteForce(game, color), new HashSet<>(game.allLegalMoves(color)),
+                        fen + " " + color);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A pinned piece only moves along the pin")
+    public void pinnedPiece() {
+        // The rook on e4 is pinned by the rook on e8, the knight on d2 by the bishop on a5
+        ChessGame game = TestBoards.game("k3r3/8/8/b7/4R3/8/3N4/4K3 w - - 0 1");
+
+        Set<ChessMove> rookMoves = new HashSet<>(game.validMoves(new ChessPosition(4, 5)));
+        Assertions.assertEquals(Set.of(move(4, 5, 2, 5), move(4, 5, 3, 5), move(4, 5, 5, 5),
+                move(4, 5, 6, 5), move(4, 5, 7, 5), move(4, 5, 8, 5)), rookMoves);
+        Assertions.assertTrue(game.validMoves(new ChessPosition(2, 4)).isEmpty());
+    }
+
+    @Test
+    @DisplayName("In check only captures, blocks and king moves are legal")
+    public void singleCheck() {
+        // Rook on e8 checks the king on e1; the bishop, knight and queen can each block
+        ChessGame game = TestBoards.game("k3r3/8/8/8/8/5B2/8/Q3K1N1 w - - 0 1");
+
+        Set<ChessMove> moves = new HashSet<>(game.allLegalMoves(WHITE));
+        Assertions.assertTrue(moves.contains(move(1, 1, 5, 5)));
+        Assertions.assertFalse(moves.contains(move(1, 1, 2, 1)));
+        Assertions.assertTrue(moves.contains(move(3, 6, 4, 5)));
+        Assertions.assertTrue(moves.contains(move(1, 7, 2, 5)));
+        Assertions.assertFalse(moves.contains(move(1, 7, 3, 8)));
+        for (ChessMove legal : moves) {
+            int undo = game.makeMove(Bitboards.square(legal.getStartPosition()),
+                    Bitboards.square(legal.getEndPosition()), null);
+            Assertions.assertFalse(game.isInCheck(WHITE), legal.toString());
+            game.unmakeMove(undo);
+        }
+    }
+
+    @Test
+    @DisplayName("In double check only the king moves")
+    public void doubleCheck() {
+        // Rook on e8 and knight on d3 both check the king on e1
+        ChessGame game = TestBoards.game("k3r3/8/8/8/8/3n4/8/Q3K3 w - - 0 1");
+
+        for (ChessMove legal : game.allLegalMoves(WHITE)) {
+            Assertions.assertEquals(new ChessPosition(1, 5), legal.getStartPosition());
+        }
+        Assertions.assertFalse(game.allLegalMoves(WHITE).isEmpty());
+    }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MakeUnmakeTests {
+
+    // Quiet moves, captures and promotions with and without capture for both sides
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "r3k2r/1P4P1/8/3pP3/2n5/8/1p4p1/R3K2R w",
+            "r3k2r/1P4P1/8/3pP3/2n5/8/1p4p1/R3K2R b",
+    };
+
+    /**
+     * Asserts that two boards agree on the grid and on every part of the bitboard index
+     */
+    static void assertSameBoard(ChessBoard expected, ChessBoard actual, String message) {
+        Assertions.assertEquals(expected, actual, message);
+        Assertions.assertEquals(expected.occupied(), actual.occupied(), message);
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            Assertions.assertEquals(expected.occupancy(color), actual.occupancy(color), message);
+            Assertions.assertEquals(expected.kingSquare(color), actual.kingSquare(color), message);
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                Assertions.assertEquals(expected.pieces(color, type), actual.pieces(color, type), message);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Unmake restores every legal move's position")
+    public void roundTripEveryMove() {
+        for (String fen : POSITIONS) {
+            ChessGame game = TestBoards.game(fen);
+            ChessGame before = TestBoards.game(fen);
+            int tried = 0;
+
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    ChessPosition start = new ChessPosition(row, col);
+                    ChessPiece piece = game.getBoard().getPiece(start);
+                    if (piece == null || piece.getTeamColor() != game.getTeamTurn()) {
+                        continue;
+                    }
+                    for (ChessMove move : game.validMoves(start)) {
+                        int undo = game.makeMove(Bitboards.square(start), Bitboards.square(move.getEndPosition()),
+                                move.getPromotionPiece());
+                        Assertions.assertNotEquals(before.getTeamTurn(), game.getTeamTurn());
+                        game.unmakeMove(undo);
+                        tried++;
+
+                        assertSameBoard(before.getBoard(), game.getBoard(), fen + " " + move);
+                        Assertions.assertEquals(before.getTeamTurn(), game.getTeamTurn());
+                        Assertions.assertEquals(before, game, fen + " " + move);
+                    }
+                }
+            }
+            Assertions.assertTrue(tried > 0, fen);
+        }
+    }
+
+    @Test
+    @DisplayName("Capture with promotion is taken back to the pawn and the captured piece")
+    public void promotionCaptureRestored() {
+        ChessGame game = TestBoards.game(POSITIONS[1]);
+        int from = Bitboards.square(7, 2);
+        int to = Bitboards.square(8, 1);
+
+        int undo = game.makeMove(from, to, ChessPiece.PieceType.KNIGHT);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().pieceAt(to));
+        Assertions.assertNull(game.getBoard().pieceAt(from));
+
+        game.unmakeMove(undo);
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                game.getBoard().pieceAt(from));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+                game.getBoard().pieceAt(to));
+        assertSameBoard(TestBoards.game(POSITIONS[1]).getBoard(), game.getBoard(), "a7xa8=N");
+    }
+
+    @Test
+    @DisplayName("Nested moves unwind in reverse order")
+    public void nestedRoundTrip() {
+        ChessGame game = TestBoards.game(POSITIONS[1]);
+        ChessBoard board = game.getBoard();
+
+        for (ChessMove first : game.validMoves(new ChessPosition(7, 2))) {
+            int outer = game.makeMove(Bitboards.square(first.getStartPosition()),
+                    Bitboards.square(first.getEndPosition()), first.getPromotionPiece());
+            String afterFirst = board.toString();
+            for (ChessMove second : game.validMoves(new ChessPosition(2, 7))) {
+                game.unmakeMove(game.makeMove(Bitboards.square(second.getStartPosition()),
+                        Bitboards.square(second.getEndPosition()), second.getPromotionPiece()));
+                Assertions.assertEquals(afterFirst, board.toString());
+            }
+            game.unmakeMove(outer);
+        }
+
+        assertSameBoard(TestBoards.game(POSITIONS[1]).getBoard(), board, "nested");
+    }
+}
@@ -0,0 +1,75 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Start position node counts")
+    public void startPosition() {
+        ChessGame game = new ChessGame();
+
+        Assertions.assertEquals(1, Perft.count(game, 0));
+        Assertions.assertEquals(20, Perft.count(game, 1));
+        Assertions.assertEquals(400, Perft.count(game, 2));
+        Assertions.assertEquals(8902, Perft.count(game, 3));
+        Assertions.assertEquals(197281, Perft.count(game, 4));
+        Assertions.assertEquals(new ChessGame(), game, "Perft should leave the game unchanged");
+    }
+
+    @Test
+    @DisplayName("Rook and pawn endgame node counts")
+    public void endgame() {
+        // Published counts for this position, less the en passant captures this game does not have
+        ChessGame game = ChessGame.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+
+        Assertions.assertEquals(14, Perft.count(game, 1));
+        Assertions.assertEquals(191, Perft.count(game, 2));
+        Assertions.assertEquals(2812 - 2, Perft.count(game, 3));
+    }
+
+    @Test
+    @DisplayName("Divide sums to the full count")
+    public void divide() {
+        ChessGame game = new ChessGame();
+        Map<ChessMove, Long> divide = Perft.divide(game, 3, null);
+
+        Assertions.assertEquals(20, divide.size());
+        Assertions.assertEquals(8902, divide.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(600, divide.get(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+    }
+
+    @Test
+    @DisplayName("Parallel root split matches the sequential count")
+    public void parallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ChessGame game = new ChessGame();
+            Assertions.assertEquals(Perft.divide(game, 3, null), Perft.divide(game, 3, pool));
+            Assertions.assertEquals(197281, Perft.count(game, 4, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Promotions and checks")
+    public void promotions() {
+        // White pawn about to promote next to the black king, which must answer checks
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(7, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        Assertions.assertEquals(Perft.count(game, 3), Perft.divide(game, 3, null).values().stream()
+                .mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(9, Perft.count(game, 1));
+    }
+}
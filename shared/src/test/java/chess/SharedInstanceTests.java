@@ -0,0 +1,64 @@
+package chess;
+
+import java.util.Collection;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SharedInstanceTests {
+
+    @Test
+    @DisplayName("Positions on the board are shared, off the board are not")
+    public void sharedPositions() {
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                Assertions.assertSame(position, ChessPosition.of(row, col));
+                Assertions.assertEquals(new ChessPosition(row, col), position);
+                Assertions.assertEquals(new ChessPosition(row, col).hashCode(), position.hashCode());
+            }
+        }
+
+        ChessPosition offBoard = ChessPosition.of(0, 9);
+        Assertions.assertNotSame(offBoard, ChessPosition.of(0, 9));
+        Assertions.assertEquals(offBoard, ChessPosition.of(0, 9));
+    }
+
+    @Test
+    @DisplayName("Pieces are shared per color and type")
+    public void sharedPieces() {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                ChessPiece piece = ChessPiece.of(color, type);
+                Assertions.assertSame(piece, ChessPiece.of(color, type));
+                Assertions.assertSame(piece, ChessPiece.fromIndex(ChessBoard.pieceIndex(piece)));
+                Assertions.assertEquals(new ChessPiece(color, type), piece);
+                Assertions.assertEquals(new ChessPiece(color, type).hashCode(), piece.hashCode());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("The engine hands out shared pieces and positions")
+    public void engineUsesSharedInstances() {
+        ChessGame game = new ChessGame();
+        ChessBoard board = game.getBoard();
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                board.getPiece(new ChessPosition(1, 5)));
+
+        Collection<ChessMove> moves = game.validMoves(new ChessPosition(1, 7));
+        for (ChessMove move : moves) {
+            Assertions.assertSame(ChessPosition.of(1, 7), move.getStartPosition());
+            ChessPosition end = move.getEndPosition();
+            Assertions.assertSame(ChessPosition.of(end.getRow(), end.getColumn()), end);
+        }
+
+        // A piece added with the public constructor is still found by equality
+        board.addPiece(new ChessPosition(4, 4),
+                new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
+                board.getPiece(new ChessPosition(4, 4)));
+        Assertions.assertTrue(board.isSquareAttacked(new ChessPosition(2, 4), ChessGame.TeamColor.BLACK));
+    }
+}
@@ -0,0 +1,83 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SquareAttackedTests {
+
+    private static final ChessGame.TeamColor WHITE = ChessGame.TeamColor.WHITE;
+    private static final ChessGame.TeamColor BLACK = ChessGame.TeamColor.BLACK;
+
+    private static boolean attacked(ChessBoard board, int row, int col, ChessGame.TeamColor by) {
+        return board.isSquareAttacked(new ChessPosition(row, col), by);
+    }
+
+    @Test
+    @DisplayName("Pawns attack diagonally forward only")
+    public void pawnAttacks() {
+        ChessBoard board = TestBoards.game("4k3/8/8/8/8/2p5/4P3/4K3 w - - 0 1").getBoard();
+
+        Assertions.assertTrue(attacked(board, 3, 4, WHITE));
+        Assertions.assertTrue(attacked(board, 3, 6, WHITE));
+        Assertions.assertFalse(attacked(board, 3, 5, WHITE));
+        Assertions.assertTrue(attacked(board, 2, 2, BLACK));
+        Assertions.assertTrue(attacked(board, 2, 4, BLACK));
+        Assertions.assertFalse(attacked(board, 4, 2, BLACK));
+    }
+
+    @Test
+    @DisplayName("Knights and kings attack their step squares")
+    public void stepAttacks() {
+        ChessBoard board = TestBoards.game("4k3/8/8/8/8/8/8/4K1N1 w - - 0 1").getBoard();
+
+        Assertions.assertTrue(attacked(board, 3, 6, WHITE));
+        Assertions.assertTrue(attacked(board, 3, 8, WHITE));
+        Assertions.assertTrue(attacked(board, 2, 5, WHITE));
+        Assertions.assertFalse(attacked(board, 3, 7, WHITE));
+        Assertions.assertTrue(attacked(board, 7, 4, BLACK));
+        Assertions.assertFalse(attacked(board, 6, 5, BLACK));
+    }
+
+    @Test
+    @DisplayName("Sliders stop at the first piece in the way")
+    public void slidersAreBlocked() {
+        ChessBoard board = TestBoards.game("4k3/8/8/8/1q2P3/8/8/4K3 b - - 0 1").getBoard();
+
+        // Queen on b4: the rank is blocked by the pawn on e4, the diagonal reaches e1
+        Assertions.assertTrue(attacked(board, 4, 5, BLACK));
+        Assertions.assertFalse(attacked(board, 4, 6, BLACK));
+        Assertions.assertTrue(attacked(board, 1, 5, BLACK));
+        Assertions.assertTrue(attacked(board, 8, 2, BLACK));
+        Assertions.assertFalse(attacked(board, 6, 3, BLACK));
+    }
+
+    @Test
+    @DisplayName("The square behind a checked king is covered through the king")
+    public void xRayThroughKing() {
+        ChessGame game = TestBoards.game("7k/8/8/8/r2K4/8/8/8 w - - 0 1");
+        ChessBoard board = game.getBoard();
+
+        // With the king on d4 the rook's ray stops there
+        Assertions.assertTrue(attacked(board, 4, 4, BLACK));
+        Assertions.assertFalse(attacked(board, 4, 5, BLACK));
+
+        // but stepping back along the ray is still moving into check
+        Assertions.assertTrue(game.isInCheck(WHITE));
+        Assertions.assertFalse(game.validMoves(new ChessPosition(4, 4))
+                .contains(new ChessMove(new ChessPosition(4, 4), new ChessPosition(4, 5), null)));
+        Assertions.assertTrue(game.validMoves(new ChessPosition(4, 4))
+                .contains(new ChessMove(new ChessPosition(4, 4), new ChessPosition(5, 5), null)));
+    }
+
+    @Test
+    @DisplayName("Attacks agree with isInCheck for both kings")
+    public void agreesWithCheck() {
+        ChessGame game = TestBoards.game("4k3/8/8/8/8/8/4r3/4K3 w - - 0 1");
+
+        Assertions.assertTrue(attacked(game.getBoard(), 1, 5, BLACK));
+        Assertions.assertTrue(game.isInCheck(WHITE));
+        Assertions.assertFalse(attacked(game.getBoard(), 8, 5, WHITE));
+        Assertions.assertFalse(game.isInCheck(BLACK));
+    }
+}
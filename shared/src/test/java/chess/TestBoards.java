@@ -0,0 +1,45 @@
+package chess;
+
+/**
+ * Builds games from the piece placement and side to move fields of a FEN string, so tests
+ * can set up positions compactly
+ */
+final class TestBoards {
+
+    private TestBoards() {}
+
+    static ChessGame game(String fen) {
+        String[] fields = fen.split(" ");
+        String[] ranks = fields[0].split("/");
+        ChessBoard board = new ChessBoard();
+        for (int i = 0; i < ranks.length; i++) {
+            int row = 8 - i;
+            int col = 1;
+            for (char c : ranks[i].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    col += c - '0';
+                    continue;
+                }
+                ChessGame.TeamColor color = Character.isUpperCase(c)
+                        ? ChessGame.TeamColor.WHITE
+                        : ChessGame.TeamColor.BLACK;
+                ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+                    case 'k' -> ChessPiece.PieceType.KING;
+                    case 'q' -> ChessPiece.PieceType.QUEEN;
+                    case 'r' -> ChessPiece.PieceType.ROOK;
+                    case 'b' -> ChessPiece.PieceType.BISHOP;
+                    case 'n' -> ChessPiece.PieceType.KNIGHT;
+                    case 'p' -> ChessPiece.PieceType.PAWN;
+                    default -> throw new IllegalArgumentException("Unknown piece " + c);
+                };
+                board.addPiece(new ChessPosition(row, col), new ChessPiece(color, type));
+                col++;
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn("b".equals(fields[1]) ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        return game;
+    }
+}
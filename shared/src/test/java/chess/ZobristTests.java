@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    private static void play(ChessGame game, int fromRow, int fromCol, int toRow, int toCol)
+            throws InvalidMoveException {
+        game.makeMove(new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), null));
+    }
+
+    @Test
+    @DisplayName("Move orders that transpose reach the same key")
+    public void transpositions() throws InvalidMoveException {
+        ChessGame first = new ChessGame();
+        play(first, 1, 7, 3, 6);
+        play(first, 8, 7, 6, 6);
+        play(first, 1, 2, 3, 3);
+
+        ChessGame second = new ChessGame();
+        play(second, 1, 2, 3, 3);
+        play(second, 8, 7, 6, 6);
+        play(second, 1, 7, 3, 6);
+
+        Assertions.assertEquals(first.positionKey(), second.positionKey());
+        Assertions.assertEquals(TestBoards.game("rnbqkb1r/pppppppp/5n2/8/8/2N2N2/PPPPPPPP/R1BQKB1R b").positionKey(),
+                first.positionKey());
+    }
+
+    @Test
+    @DisplayName("The incremental key matches one computed from scratch")
+    public void incrementalMatchesFresh() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        play(game, 2, 5, 4, 5);
+        play(game, 7, 4, 5, 4);
+        play(game, 4, 5, 5, 4);
+
+        ChessBoard rebuilt = new ChessBoard();
+        ChessBoard board = game.getBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                if (piece != null) {
+                    rebuilt.addPiece(new ChessPosition(row, col), piece);
+                }
+            }
+        }
+
+        Assertions.assertEquals(rebuilt.key(), board.key());
+    }
+
+    @Test
+    @DisplayName("The key is restored after unmake")
+    public void restoredAfterUnmake() {
+        ChessGame game = TestBoards.game("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1");
+        long key = game.positionKey();
+        MoveList moves = new MoveList();
+        game.generateLegalMoves(moves);
+
+        for (int i = 0; i < moves.size(); i++) {
+            int undo = game.makeMove(moves.get(i));
+            Assertions.assertNotEquals(key, game.positionKey(), Move.toString(moves.get(i)));
+            game.unmakeMove(undo);
+            Assertions.assertEquals(key, game.positionKey(), Move.toString(moves.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Side to move is part of the key")
+    public void sideToMove() {
+        ChessGame white = TestBoards.game("4k3/8/8/8/8/8/8/4K3 w - - 0 1");
+        ChessGame black = TestBoards.game("4k3/8/8/8/8/8/8/4K3 b - - 0 1");
+
+        Assertions.assertEquals(white.getBoard().key(), black.getBoard().key());
+        Assertions.assertNotEquals(white.positionKey(), black.positionKey());
+    }
+}
@@ -0,0 +1,103 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.ResignCommand;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.ServerMessage;
+
+public class SerializerTests {
+
+    private final Gson reflective = new Gson();
+
+    @Test
+    @DisplayName("Games match the reflective JSON both ways")
+    public void gameCompatibility() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        ChessGame fromReflective = Serializer.GSON.fromJson(reflective.toJson(game), ChessGame.class);
+        ChessGame toReflective = reflective.fromJson(Serializer.GSON.toJson(game), ChessGame.class);
+
+        Assertions.assertEquals(game, fromReflective);
+        Assertions.assertEquals(game.toFen(), fromReflective.toFen());
+        Assertions.assertEquals(game, toReflective);
+        Assertions.assertEquals(game.toFen(), toReflective.toFen());
+    }
+
+    @Test
+    @DisplayName("Games are sent without their repetition history")
+    public void gameHistoryNotSent() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        for (String json : new String[] {Serializer.GSON.toJson(game), reflective.toJson(game)}) {
+            Assertions.assertFalse(json.contains("keyHistory"), json);
+            Assertions.assertFalse(json.contains("historySize"), json);
+            Assertions.assertEquals(game.toFen(), Serializer.GSON.fromJson(json, ChessGame.class).toFen());
+        }
+    }
+
+    @Test
+    @DisplayName("Commands decode to their concrete type in one call")
+    public void commands() {
+        ChessMove move = new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN);
+        String json = reflective.toJson(new MakeMoveCommand("token", 3, move));
+
+        UserGameCommand command = Serializer.GSON.fromJson(json, UserGameCommand.class);
+
+        MakeMoveCommand makeMove = Assertions.assertInstanceOf(MakeMoveCommand.class, command);
+        Assertions.assertEquals("token", makeMove.getAuthToken());
+        Assertions.assertEquals(3, makeMove.getGameID());
+        Assertions.assertEquals(move, makeMove.getMove());
+
+        // The type field may come after the fields it decides how to use
+        command = Serializer.GSON.fromJson("{\"gameID\":5,\"authToken\":\"t\",\"commandType\":\"RESIGN\"}",
+                UserGameCommand.class);
+        Assertions.assertInstanceOf(ResignCommand.class, command);
+        Assertions.assertEquals(5, command.getGameID());
+    }
+
+    @Test
+    @DisplayName("Commands and messages decode when asked for as their subclass")
+    public void subclasses() {
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        String json = Serializer.GSON.toJson(new MakeMoveCommand("token", 3, move));
+        Assertions.assertEquals(move, reflective.fromJson(json, MakeMoveCommand.class).getMove());
+
+        MakeMoveCommand makeMove = Serializer.GSON.fromJson(json, MakeMoveCommand.class);
+        Assertions.assertEquals(move, makeMove.getMove());
+        Assertions.assertThrows(JsonParseException.class, () -> Serializer.GSON.fromJson(json, ResignCommand.class));
+
+        LoadGameMessage loadGame = Serializer.GSON.fromJson(
+                Serializer.GSON.toJson(new LoadGameMessage(new ChessGame())), LoadGameMessage.class);
+        Assertions.assertEquals(new ChessGame(), loadGame.getGame());
+    }
+
+    @Test
+    @DisplayName("Server messages round trip and stay readable by plain Gson")
+    public void messages() {
+        String json = Serializer.GSON.toJson(new LoadGameMessage(new ChessGame()));
+
+        ServerMessage message = Serializer.GSON.fromJson(json, ServerMessage.class);
+        LoadGameMessage loadGame = Assertions.assertInstanceOf(LoadGameMessage.class, message);
+        Assertions.assertEquals(new ChessGame(), loadGame.getGame());
+        Assertions.assertEquals(new ChessGame(), reflective.fromJson(json, LoadGameMessage.class).getGame());
+
+        json = Serializer.GSON.toJson(new ErrorMessage("Error: bad"));
+        Assertions.assertEquals("Error: bad", reflective.fromJson(json, ErrorMessage.class).getErrorMessage());
+    }
+}